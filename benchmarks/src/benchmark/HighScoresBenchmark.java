@@ -0,0 +1,86 @@
+package benchmark;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.GameRecording;
+import model.HighScores;
+import model.Level;
+import model.Score;
+
+/**
+ * HighScoresBenchmark Class to measure adding a score to the history of a
+ * level, which verifies the score by replaying its recording, and reading the
+ * best scores of the level, with a history of the given size set before each
+ * iteration. The recordings are of won games with DELAY milliseconds between
+ * events, and the times cycle from the time each recording took to add scores
+ * at every position.
+ *
+ * @author Daniel Newsom
+ * @version 3.0
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HighScoresBenchmark {
+
+	private static final int RECORDINGS = 64;
+	private static final int DELAY = 50;
+
+	@Param({"BEGINNER", "EASY", "MEDIUM", "HARD", "CHALLENGING", "CRAZY", "CUSTOM"})
+	public Level level;
+
+	@Param({"0", "10000"})
+	public int history;
+
+	private GameRecording[] recordings = new GameRecording[RECORDINGS];
+	private int[] durations = new int[RECORDINGS];
+	private int next = 0;
+	private int time = 0;
+
+	@Setup
+	public void record() {
+		SplittableRandom random = new SplittableRandom(42);
+		for (int i = 0; i < RECORDINGS; i++) {
+			recordings[i] = ReplayBenchmark.record(level, random, DELAY, DELAY);
+			durations[i] = (int) ((long) DELAY * recordings[i].getEventCount() / 1000) + 1;
+		}
+	}
+
+	@Setup(org.openjdk.jmh.annotations.Level.Iteration)
+	public void setUp() {
+		HighScores.resetSettings();
+		for (int i = 0; i < history; i++) {
+			addScore();
+		}
+	}
+
+	@Benchmark
+	public boolean addScore() {
+		time = (time + 7919) % 60000;
+		next = (next + 1) % RECORDINGS;
+		return HighScores.addScore(level, durations[next] + time % (60000 - durations[next]), "Player", recordings[next]);
+	}
+
+	@Benchmark
+	public List<Score> getScores() {
+		return HighScores.getScores(level);
+	}
+}
@@ -0,0 +1,179 @@
+package benchmark;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.Level;
+import model.MineField;
+
+/**
+ * MineFieldBenchmark Class to measure the MineField operations used
+ * by every game, for every level preset and for large custom boards.
+ *
+ * Boards are populated from a fixed list of seeds so every run measures
+ * the same boards. Benchmarks that change the board are given a new board
+ * for each call, which is created outside of the measured time.
+ *
+ * @author Daniel Newsom
+ * @version 3.0
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MineFieldBenchmark {
+
+	private static final int SEEDS = 64;
+
+	/**
+	 * Board sizes, either a level preset or rows x cols x mines
+	 */
+	@State(Scope.Thread)
+	public static class Board {
+
+		@Param({"BEGINNER", "EASY", "MEDIUM", "HARD", "CHALLENGING", "CRAZY",
+				"200x200x6000", "1000x1000x150000"})
+		public String size;
+
+		int[] levelArray;
+		long[] seeds = new long[SEEDS];
+		int next = 0;
+
+		@Setup
+		public void setUp() {
+			levelArray = parseSize(size);
+			SplittableRandom random = new SplittableRandom(42);
+			for (int i = 0; i < SEEDS; i++) {
+				seeds[i] = random.nextLong();
+			}
+		}
+
+		long nextSeed() {
+			next = (next + 1) % SEEDS;
+			return seeds[next];
+		}
+	}
+
+	/**
+	 * A populated board created fresh for every call
+	 */
+	@State(Scope.Thread)
+	public static class PopulatedBoard {
+
+		MineField minefield;
+		int numberedRow;
+		int numberedCol;
+
+		@Setup(org.openjdk.jmh.annotations.Level.Invocation)
+		public void setUp(Board board) {
+			minefield = new MineField(board.levelArray);
+			minefield.populate(board.nextSeed());
+			// find a tile with mined neighbours so stepping on it reveals only that tile
+			for (int index = 0; index < minefield.getTotalTiles(); index++) {
+				if (!minefield.getBoard().isMined(index) && minefield.getBoard().getMinedNeighbours(index) > 0) {
+					numberedRow = index / minefield.getCols();
+					numberedCol = index % minefield.getCols();
+					break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * A board with every mine packed into the last tiles created fresh for every call,
+	 * so stepping on the first tile floods as much of the board as possible
+	 */
+	@State(Scope.Thread)
+	public static class FloodBoard {
+
+		MineField minefield;
+
+		@Setup(org.openjdk.jmh.annotations.Level.Invocation)
+		public void setUp(Board board) {
+			minefield = new MineField(board.levelArray);
+			int cols = minefield.getCols();
+			for (int index = minefield.getTotalTiles() - 1; minefield.getNumMinesRemaining() > 0 && index > 0; index--) {
+				minefield.mineTile(index / cols, index % cols);
+			}
+		}
+	}
+
+	/**
+	 * A board part way through a game, with the first tile stepped on
+	 */
+	@State(Scope.Thread)
+	public static class PlayingBoard {
+
+		MineField minefield;
+
+		@Setup
+		public void setUp(Board board) {
+			minefield = new MineField(board.levelArray);
+			minefield.populate(board.nextSeed());
+			minefield.stepOnTile(0, 0);
+		}
+	}
+
+	@Benchmark
+	public MineField construct(Board board) {
+		return new MineField(board.levelArray);
+	}
+
+	/**
+	 * Includes construction, subtract construct for the cost of populate alone
+	 */
+	@Benchmark
+	public MineField constructAndPopulate(Board board) {
+		MineField minefield = new MineField(board.levelArray);
+		minefield.populate(board.nextSeed());
+		return minefield;
+	}
+
+	@Benchmark
+	public boolean stepOnTileBestCase(PopulatedBoard board) {
+		return board.minefield.stepOnTile(board.numberedRow, board.numberedCol);
+	}
+
+	@Benchmark
+	public boolean stepOnTileWorstCase(FloodBoard board) {
+		return board.minefield.stepOnTile(0, 0);
+	}
+
+	@Benchmark
+	public boolean areAllMinesRevealed(PlayingBoard board) {
+		return board.minefield.areAllMinesRevealed();
+	}
+
+	@Benchmark
+	public MineField revealAllMines(PopulatedBoard board) {
+		board.minefield.revealAllMines();
+		return board.minefield;
+	}
+
+	/**
+	 * Return the level array for a level preset name or rows x cols x mines
+	 * @param size String representing the size
+	 * @return int[] representing number of rows, columns and mines
+	 */
+	static int[] parseSize(String size) {
+		if (size.indexOf('x') < 0) {
+			return Level.getLevelArray(Level.valueOf(size));
+		}
+		String[] parts = size.split("x");
+		return new int[] {Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2])};
+	}
+}
@@ -0,0 +1,70 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.Level;
+import solver.NoGuessGenerator;
+
+/**
+ * NoGuessBenchmark Class to measure how long the no guess generator takes
+ * to find a board for each level, with the first tile in the centre of the
+ * board. A search that runs out of budget returns the best board found, so
+ * a level whose time is close to the budget often needs a guess.
+ *
+ * @author Daniel Newsom
+ * @version 3.0
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class NoGuessBenchmark {
+
+	@Param({"BEGINNER", "EASY", "MEDIUM", "HARD", "CHALLENGING", "CRAZY"})
+	public Level level;
+
+	@Param({"false", "true"})
+	public boolean safeZone;
+
+	@Param({"" + NoGuessGenerator.DEFAULT_BUDGET_MILLIS})
+	public long budget;
+
+	private NoGuessGenerator generator;
+	private int[] levelArray;
+	private int row;
+	private int col;
+
+	@Setup
+	public void setUp() {
+		generator = new NoGuessGenerator(Runtime.getRuntime().availableProcessors(), budget);
+		levelArray = Level.getLevelArray(level);
+		row = levelArray[0] / 2;
+		col = levelArray[1] / 2;
+	}
+
+	@TearDown
+	public void tearDown() {
+		generator.shutdown();
+	}
+
+	@Benchmark
+	public long generate() {
+		return generator.generate(levelArray, safeZone, row, col);
+	}
+}
@@ -0,0 +1,114 @@
+package benchmark;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.Game;
+import model.GameRecording;
+import model.GameReplay;
+import model.Level;
+import model.MineBoard;
+
+/**
+ * ReplayBenchmark Class to measure replaying recorded games headless, the
+ * number of games replayed each second. The recordings are of won games
+ * played by stepping on every tile that is not mined and marking every mine
+ * in a random order, made from a fixed seed so every run replays the same games.
+ *
+ * @author Daniel Newsom
+ * @version 3.0
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ReplayBenchmark {
+
+	private static final int RECORDINGS = 256;
+
+	@Param({"BEGINNER", "MEDIUM", "CHALLENGING", "CRAZY"})
+	public Level level;
+
+	private GameRecording[] recordings = new GameRecording[RECORDINGS];
+	private int next = 0;
+
+	@Setup
+	public void setUp() {
+		SplittableRandom random = new SplittableRandom(42);
+		for (int i = 0; i < RECORDINGS; i++) {
+			recordings[i] = record(level, random, 0, 1999);
+		}
+	}
+
+	/**
+	 * Play a game to the end, recording every step and mark
+	 * @param level Level to play
+	 * @param random SplittableRandom choosing the seed, the order of the tiles and the delays
+	 * @param minDelay int representing the fewest milliseconds recorded between events
+	 * @param maxDelay int representing the most milliseconds recorded between events
+	 * @return GameRecording of the won game
+	 */
+	static GameRecording record(Level level, SplittableRandom random, int minDelay, int maxDelay) {
+		int[] levelArray = Level.getLevelArray(level);
+		Game game = new Game(levelArray, random.nextLong());
+		MineBoard board = game.getMinefield().getBoard();
+		GameRecording recording = new GameRecording(level, game.getMinefield(), game.getSeed());
+		int cols = levelArray[1];
+		int[] order = new int[board.getTotalTiles()];
+		for (int i = 0; i < order.length; i++) {
+			int j = random.nextInt(i + 1);
+			order[i] = order[j];
+			order[j] = i;
+		}
+		for (int i = 0; i < order.length && game.isPlaying(); i++) {
+			int index = order[i];
+			if (!game.isStarted() || !board.isMined(index)) {
+				if (!board.isRevealed(index)) {
+					recording.record(index, GameRecording.STEP, random.nextInt(minDelay, maxDelay + 1));
+					game.stepOnTile(index / cols, index % cols);
+				}
+			}
+			else {
+				recording.record(index, GameRecording.MARK, random.nextInt(minDelay, maxDelay + 1));
+				game.markTile(index / cols, index % cols);
+			}
+		}
+		return recording;
+	}
+
+	@Benchmark
+	public Game replay() {
+		next = (next + 1) % RECORDINGS;
+		return GameReplay.replay(recordings[next]);
+	}
+
+	/**
+	 * Replays a game one event at a time as the GUI does
+	 */
+	@Benchmark
+	public int replayByEvent() {
+		next = (next + 1) % RECORDINGS;
+		GameReplay replay = new GameReplay(recordings[next]);
+		long delay = 0;
+		while (replay.hasNext()) {
+			delay += replay.getNextDelayMillis();
+			replay.playNext();
+		}
+		return (int) delay;
+	}
+}
@@ -0,0 +1,73 @@
+package benchmark;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.MineField;
+import solver.Solver;
+
+/**
+ * SolverBenchmark Class to measure the solver clearing a board from the
+ * first tile, deducing as many tiles as it can, for boards of different sizes.
+ *
+ * Boards are populated from a fixed list of seeds so every run measures the
+ * same boards, and a new board is populated for each call outside of the
+ * measured time. The time includes creating the solver for the board.
+ *
+ * @author Daniel Newsom
+ * @version 3.0
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SolverBenchmark {
+
+	private static final int SEEDS = 64;
+
+	@Param({"MEDIUM", "CRAZY", "200x200x6000", "1000x1000x150000"})
+	public String size;
+
+	private int[] levelArray;
+	private long[] seeds = new long[SEEDS];
+	private int next = 0;
+	private MineField minefield;
+
+	@Setup
+	public void seed() {
+		levelArray = MineFieldBenchmark.parseSize(size);
+		SplittableRandom random = new SplittableRandom(42);
+		for (int i = 0; i < SEEDS; i++) {
+			seeds[i] = random.nextLong();
+		}
+	}
+
+	@Setup(org.openjdk.jmh.annotations.Level.Invocation)
+	public void setUp() {
+		next = (next + 1) % SEEDS;
+		minefield = new MineField(levelArray);
+		minefield.populate(seeds[next]);
+	}
+
+	@Benchmark
+	public Solver clearFrom() {
+		Solver solver = new Solver(minefield);
+		solver.clearFrom(0, 0);
+		return solver;
+	}
+}
@@ -0,0 +1,269 @@
+package application;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import model.MineField;
+
+/**
+ * BoardPool Class to create and populate the next few minefields on a
+ * background thread so a new game can start with a board that is ready.
+ * The mines of a pooled board are placed anywhere on it, and the first
+ * step only moves the few in the safe area around the tile stepped on,
+ * see MineField.clearSafeArea, so the first step does not wait for the
+ * board to be generated.
+ *
+ * Boards are kept for the current level and for the most recently used
+ * custom dimensions. When the level changes the boards for other levels
+ * are discarded, and any board still being generated for them is dropped
+ * when it finishes.
+ *
+ * @author Daniel Newsom
+ * @version 3.0
+ *
+ */
+public class BoardPool {
+
+	/*
+	 * Number of boards kept ready for each level
+	 * and number of custom dimensions kept alongside the current level
+	 */
+	public static final int BOARDS_PER_LEVEL = 3;
+	public static final int RECENT_CUSTOM_LEVELS = 2;
+
+	/*
+	 * Number of tiles above which only one board is kept for a level
+	 */
+	public static final int LARGE_BOARD_TILES = 1 << 22;
+
+	private static final String SAFE_ZONE = " safe zone";
+
+	private Map<String, ArrayDeque<MineField>> boards = new HashMap<String, ArrayDeque<MineField>>();
+	private Map<String, int[]> levelArrays = new HashMap<String, int[]>();
+	private List<String> recentCustom = new ArrayList<String>();
+	private Set<String> failed = new HashSet<String>();
+	private String currentKey;
+	private boolean currentSafeZone;
+	private boolean filling = false;
+	private long hits = 0;
+	private long misses = 0;
+	private ExecutorService background;
+
+	/**
+	 * Constructor for the BoardPool class
+	 */
+	public BoardPool() {
+		background = Executors.newSingleThreadExecutor(r->{
+			Thread thread = new Thread(r, "board-pool");
+			thread.setDaemon(true);
+			thread.setPriority(Thread.MIN_PRIORITY);
+			return thread;
+		});
+	}
+
+	/**
+	 * Take a minefield for a level and start refilling the pool. If none is ready
+	 * a new minefield is created, which is populated on the first step instead.
+	 * @param levelArray int[] representing number of rows, columns and mines
+	 * @param custom boolean true if the dimensions are from the custom level
+	 * @param safeZone boolean true if the tiles around the first tile are free of mines
+	 * @return MineField representing the minefield
+	 */
+	public MineField take(int[] levelArray, boolean custom, boolean safeZone) {
+		MineField minefield;
+		synchronized (this) {
+			prepare(levelArray, custom, safeZone);
+			ArrayDeque<MineField> ready = boards.get(currentKey);
+			minefield = ready.poll();
+			if (minefield != null) {
+				hits++;
+			}
+			else {
+				misses++;
+			}
+		}
+		if (minefield == null) {
+			minefield = new MineField(levelArray);
+			minefield.setSafeZone(safeZone);
+		}
+		refill();
+		return minefield;
+	}
+
+	/**
+	 * Make a level the current level of the pool and start generating boards for it.
+	 * Boards for levels that are neither current nor recent custom levels are discarded.
+	 * @param levelArray int[] representing number of rows, columns and mines
+	 * @param custom boolean true if the dimensions are from the custom level
+	 * @param safeZone boolean true if the tiles around the first tile are free of mines
+	 */
+	public synchronized void prepare(int[] levelArray, boolean custom, boolean safeZone) {
+		String key = getKey(levelArray, safeZone);
+		if (!key.equals(currentKey)) {
+			currentKey = key;
+			currentSafeZone = safeZone;
+			levelArrays.put(key, levelArray.clone());
+			if (!boards.containsKey(key)) {
+				boards.put(key, new ArrayDeque<MineField>());
+			}
+			if (custom) {
+				recentCustom.remove(key);
+				recentCustom.add(0, key);
+				while (recentCustom.size() > RECENT_CUSTOM_LEVELS) {
+					recentCustom.remove(recentCustom.size() - 1);
+				}
+			}
+			invalidate();
+		}
+		refill();
+	}
+
+	/*
+	 * Discard the boards of every level that is not kept
+	 */
+	private void invalidate() {
+		Iterator<String> keys = boards.keySet().iterator();
+		while (keys.hasNext()) {
+			String key = keys.next();
+			if (!key.equals(currentKey) && !recentCustom.contains(key)) {
+				keys.remove();
+				levelArrays.remove(key);
+				failed.remove(key);
+			}
+		}
+	}
+
+	/*
+	 * Start the background thread filling the pool unless it is already running
+	 */
+	private synchronized void refill() {
+		if (!filling && findLevelToFill() != null) {
+			filling = true;
+			background.execute(()->{fill();});
+		}
+	}
+
+	/*
+	 * Generate boards until every kept level has a full pool, the current level first.
+	 * A board finished after the pool was invalidated is only kept if its level still is.
+	 * A level whose board cannot be created is not filled again while it is kept,
+	 * so it does not stop the other levels being filled.
+	 */
+	private void fill() {
+		try {
+			while (true) {
+				String key;
+				int[] levelArray;
+				boolean safeZone;
+				synchronized (this) {
+					key = findLevelToFill();
+					if (key == null) {
+						return;
+					}
+					levelArray = levelArrays.get(key);
+					safeZone = isSafeZoneKey(key);
+				}
+				MineField minefield;
+				try {
+					minefield = createBoard(levelArray, safeZone);
+				} catch (RuntimeException | OutOfMemoryError e) {
+					e.printStackTrace();
+					synchronized (this) {
+						failed.add(key);
+					}
+					continue;
+				}
+				synchronized (this) {
+					ArrayDeque<MineField> ready = boards.get(key);
+					if (ready != null && ready.size() < getBoardsPerLevel(levelArray)) {
+						ready.add(minefield);
+					}
+				}
+			}
+		} finally {
+			synchronized (this) {
+				filling = false;
+			}
+		}
+	}
+
+	/*
+	 * Return the key of the first kept level with space in its pool, or null if all are full
+	 */
+	private String findLevelToFill() {
+		if (currentKey != null && !failed.contains(currentKey)
+				&& boards.get(currentKey).size() < getBoardsPerLevel(levelArrays.get(currentKey))) {
+			return currentKey;
+		}
+		for (String key : recentCustom) {
+			// custom levels are only filled for the safe zone setting in use
+			if (!failed.contains(key) && boards.get(key).size() < getBoardsPerLevel(levelArrays.get(key))
+					&& isSafeZoneKey(key) == currentSafeZone) {
+				return key;
+			}
+		}
+		return null;
+	}
+
+	/*
+	 * Create a minefield and place its mines from a new seed,
+	 * the safe area is cleared on the first step
+	 */
+	private MineField createBoard(int[] levelArray, boolean safeZone) {
+		MineField minefield = new MineField(levelArray);
+		minefield.setSafeZone(safeZone);
+		minefield.placeMines(MineField.newSeed());
+		return minefield;
+	}
+
+	/*
+	 * Return the number of boards to keep for a level, large boards take
+	 * a lot of memory so only one is kept ready
+	 */
+	private static int getBoardsPerLevel(int[] levelArray) {
+		return (long) levelArray[0] * levelArray[1] > LARGE_BOARD_TILES ? 1 : BOARDS_PER_LEVEL;
+	}
+
+	/*
+	 * Create a key for the dimensions and safe zone setting of a level
+	 */
+	private static String getKey(int[] levelArray, boolean safeZone) {
+		return Arrays.toString(levelArray) + (safeZone ? SAFE_ZONE : "");
+	}
+
+	private static boolean isSafeZoneKey(String key) {
+		return key.endsWith(SAFE_ZONE);
+	}
+
+	/*
+	 * Getters
+	 */
+
+	/**
+	 * Returns the number of boards ready for a level
+	 * @param levelArray int[] representing number of rows, columns and mines
+	 * @param safeZone boolean true for boards with a safe zone
+	 * @return int representing the number of boards ready
+	 */
+	public synchronized int getReady(int[] levelArray, boolean safeZone) {
+		ArrayDeque<MineField> ready = boards.get(getKey(levelArray, safeZone));
+		return ready == null ? 0 : ready.size();
+	}
+
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	public synchronized long getMisses() {
+		return misses;
+	}
+}
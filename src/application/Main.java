@@ -11,9 +11,10 @@ import javafx.application.Preloader;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
 import javafx.scene.control.ButtonType;
-import javafx.scene.image.Image;
 import javafx.stage.Stage;
+import model.GameRecording;
 import model.HighScores;
+import model.Level;
 
 /**
  * Main Class for the minesweeper game
@@ -25,6 +26,7 @@ import model.HighScores;
 public class Main extends Application {
 
 	private static Stage stage;
+	private static MineSweeper game;
 	private static final int COUNT_LIMIT = 100;
 	
 	public static void main(String[] args) {
@@ -34,6 +36,9 @@ public class Main extends Application {
 
 	@Override
 	public void init() throws Exception {
+		//start generating boards for the first game while the splash screen shows
+		MineSweeper.getBoardPool().prepare(Level.getLevelArray(Level.getLevel()),
+				Level.getLevel() == Level.CUSTOM, Level.isSafeZone());
 		//count and pass value to the Splash preLoader
 		for (int i = 1; i <= COUNT_LIMIT; i ++) {
             LauncherImpl.notifyPreloader(this, new Preloader.ProgressNotification(i));
@@ -46,12 +51,19 @@ public class Main extends Application {
 		/*
 		 * Set up the main stage and start a new game
 		 */
-		stage.setOnCloseRequest(e->{HighScores.exportSettingsToFile();});
+		stage.setOnCloseRequest(e->{saveGame(); HighScores.exportSettingsToFile();});
 		Main.stage = stage;
-		stage.getIcons().add(new Image(Images.ICON.getImage()));
+		stage.getIcons().add(Images.ICON.getImage());
 		stage.setTitle("MineSweeper");
 		HighScores.importSettingsFromFile();
-		startGame(stage);
+		//resume the game in progress when the game was last closed
+		MineSweeper resumed = MineSweeper.resumeGame();
+		if(resumed != null) {
+			showGame(resumed);
+		}
+		else {
+			startGame(stage);
+		}
 	}
 
 	/**
@@ -60,11 +72,28 @@ public class Main extends Application {
 	 */
 	public static void startGame(Stage stage) {
 
-		MineSweeper game = new MineSweeper();
+		HighScores.saveSettings();
+		showGame(new MineSweeper());
+	}
+
+	/*
+	 * Display a game in the main window
+	 */
+	private static void showGame(MineSweeper game) {
+		Main.game = game;
 		GUI gui = new GUI(game);
 		gui.constructWindow();
 	}
 
+	/*
+	 * Save the game in progress so it is resumed next time
+	 */
+	private static void saveGame() {
+		if(game != null) {
+			game.saveGame();
+		}
+	}
+
 	/**
 	 * Display a dialog to confirm and then restart game if playing
 	 * if not playing just restart game
@@ -97,6 +126,35 @@ public class Main extends Application {
 
 	}
 	
+	/**
+	 * Display a dialog to confirm and then replay the last game played if playing,
+	 * if not playing just replay the last game
+	 */
+	public static void replayLastGame() {
+		GameRecording recording = MineSweeper.getLastRecording();
+		if(recording == null) {
+			return;
+		}
+		MineSweeper.pauseTimer();
+		if(MineSweeper.isPlaying()) {
+			Alert alert = new Alert(AlertType.CONFIRMATION);
+			alert.initOwner(Main.getStage());
+			alert.setTitle("Confirm");
+			alert.setHeaderText("Replaying the last game");
+			alert.setContentText("Are you sure?");
+			alert.setResizable(false);
+
+			Optional<ButtonType> result = alert.showAndWait();
+			if (result.get() != ButtonType.OK){
+				MineSweeper.playTimer();
+				return;
+			}
+		}
+		MineSweeper replay = MineSweeper.replayGame(recording);
+		showGame(replay);
+		replay.startReplay();
+	}
+
 	/**
 	 * Method to confirm exit and save settings on exit
 	 */
@@ -118,7 +176,8 @@ public class Main extends Application {
 
 			result = alert.showAndWait();
 			if (result.get() == ButtonType.OK){
-				//save settings before closing
+				//save the game and settings before closing
+				saveGame();
 				HighScores.exportSettingsToFile();
 				System.exit(0);
 			}
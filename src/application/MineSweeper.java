@@ -1,17 +1,36 @@
 package application;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import gui.GUI;
 import javafx.animation.Animation;
 import javafx.animation.KeyFrame;
+import javafx.animation.PauseTransition;
 import javafx.animation.Timeline;
+import javafx.application.Platform;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 import javafx.util.Duration;
+import model.Game;
+import model.GameRecording;
+import model.GameReplay;
+import model.GameSnapshot;
+import model.GameState;
 import model.Level;
 import model.MineField;
+import model.Score;
+import solver.NoGuessGenerator;
 
 /**
- * Minesweeper class representing an instance of the game
+ * Minesweeper class representing an instance of the game.
+ * Adapts the headless Game to JavaFX, running its timer
+ * and providing properties for the GUI to bind to.
  * 
  * @author Daniel Newsom
  * @version 3.0
@@ -19,41 +38,339 @@ import model.MineField;
  */
 public class MineSweeper {
 
-	private MineField minefield;
+	private static final Path SAVE_FILE = Paths.get("savedgame.bin");
+	private static final Path RECORDING_FILE = Paths.get("lastgame.rec");
+	private static final String GENERATING = "Generating board...";
+	private static final String NEEDS_GUESS = "No board without guessing was found in time, this board may need a guess";
+
+	private Game engine;
+	private boolean noGuess;
+	private Level gameLevel;
+	private GameRecording recording;
+	private long lastEventNanos;
+	private GameReplay replay;
 	private static boolean playing;
 	private GUI gui;
-	private int time;
 	private StringProperty timeString;
 	private StringProperty level;
+	private StringProperty tilesFlagged;
+	private StringProperty minesRemaining;
+	private StringProperty status;
+	private int displayedFlagged;
+	private int displayedRemaining;
 	private static Timeline timer;
+	private static BoardPool boardPool;
+	private static NoGuessGenerator generator;
+	private static ExecutorService starter;
+	private static MineSweeper generating;
+	private static PauseTransition replayStep;
+	private static GameRecording lastRecording;
+	private static long pausedNanos;
+	private static long pauseStartNanos;
 
 	/**
-	 * Constructor for the Minesweeper class 
+	 * Constructor for the Minesweeper class, takes a board for the current level from the pool
 	 */
 	public MineSweeper() {
-		createMinefield(Level.getLevel());
+		this(getBoardPool().take(Level.getLevelArray(Level.getLevel()),
+				Level.getLevel() == Level.CUSTOM, Level.isSafeZone()));
+	}
+
+	/**
+	 * Constructor for the Minesweeper class using a given seed,
+	 * the same seed, level and first tile always give the same minefield.
+	 * @param seed long representing the seed used to populate the minefield
+	 */
+	public MineSweeper(long seed) {
+		this(createMinefield(Level.getLevel()), seed);
+	}
+
+	/**
+	 * Constructor for the Minesweeper class using a minefield, the mines are placed
+	 * around the first tile stepped on, searching for a board that can be cleared
+	 * without guessing if no guess mode is on and the minefield is not too large to search
+	 * @param minefield MineField representing the minefield to play
+	 */
+	public MineSweeper(MineField minefield) {
+		this(minefield, MineField.newSeed());
+	}
+
+	/*
+	 * Constructor for the Minesweeper class using a minefield and the seed
+	 * it is populated with when the first tile is stepped on
+	 */
+	private MineSweeper(MineField minefield, long seed) {
+		this(new Game(minefield, seed));
+		if(Level.isNoGuess() && minefield.getTotalTiles() <= NoGuessGenerator.MAX_TILES) {
+			engine.setGenerator(getGenerator());
+			noGuess = true;
+		}
+		startRecording(new GameRecording(gameLevel, minefield, engine.getSeed()));
+	}
+
+	/**
+	 * Constructor for the Minesweeper class playing a game at the current level
+	 * @param engine Game representing the game to play
+	 */
+	private MineSweeper(Game engine) {
+		//stop any replay still playing into the previous game
+		if(replayStep != null) {
+			replayStep.stop();
+			replayStep = null;
+		}
+		//a board still being generated for the previous game is dropped
+		generating = null;
+		this.engine = engine;
+		gameLevel = Level.getLevel();
 		playing = true;
-		time = 0;
-		timeString = new SimpleStringProperty("00");
+		timeString = new SimpleStringProperty();
+		updateTimeString();
+		displayedFlagged = getMinefield().getTilesMarked();
+		displayedRemaining = getMinefield().getMinesNotMarked();
+		tilesFlagged = new SimpleStringProperty(String.format("%3d", displayedFlagged));
+		minesRemaining = new SimpleStringProperty(String.format("%3d", displayedRemaining));
 		level = new SimpleStringProperty(Level.getLevel().toString());
+		status = new SimpleStringProperty("");
 		timer = new Timeline(new KeyFrame(Duration.seconds(1), ev -> {incrementTime();}));
 		timer.setCycleCount(Animation.INDEFINITE);
 		playTimer();
 	}
 
 	/**
-	 * Create a minefield based on the parameters from the current level and then populate
+	 * Save the game if it has been started and is still being played so it can be
+	 * resumed next time, otherwise remove any saved game. A game that cannot be
+	 * saved is lost, as it was before games were saved. Replays are never saved.
+	 */
+	public void saveGame() {
+		try {
+			if(replay == null && engine.isStarted() && engine.isPlaying()) {
+				GameSnapshot.save(SAVE_FILE, engine, gameLevel, recording);
+			}
+			else {
+				Files.deleteIfExists(SAVE_FILE);
+			}
+		} catch (IOException e) {
+			// nothing to do, the next game starts as a new game
+		}
+	}
+
+	/**
+	 * Resume the saved game if there is one, setting the level to the level it was
+	 * played at. The saved game is removed so it is only resumed once.
+	 * @return MineSweeper representing the resumed game, or null if there is no saved game
+	 */
+	public static MineSweeper resumeGame() {
+		if(!Files.exists(SAVE_FILE)) {
+			return null;
+		}
+		try {
+			GameSnapshot snapshot = GameSnapshot.load(SAVE_FILE);
+			Files.delete(SAVE_FILE);
+			MineField minefield = snapshot.getGame().getMinefield();
+			if(snapshot.getLevel() == Level.CUSTOM) {
+				Level.setCustomArray(new int[] {minefield.getRows(), minefield.getCols(), minefield.getNumberOfMines()});
+			}
+			Level.setLevel(snapshot.getLevel());
+			MineSweeper resumed = new MineSweeper(snapshot.getGame());
+			resumed.startRecording(snapshot.getRecording());
+			return resumed;
+		} catch (IOException e) {
+			// a saved game that cannot be read is discarded
+			try {
+				Files.deleteIfExists(SAVE_FILE);
+			} catch (IOException ex) {
+				// nothing more to do
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Create a game replaying a recording in real time in the main window, setting the
+	 * level to the level it was played at. Clicks are ignored while it is replayed.
+	 * Call startReplay once the game is displayed.
+	 * @param recording GameRecording representing the recording to replay
+	 * @return MineSweeper representing the replayed game
+	 */
+	public static MineSweeper replayGame(GameRecording recording) {
+		if(recording.getLevel() == Level.CUSTOM) {
+			Level.setCustomArray(new int[] {recording.getRows(), recording.getCols(), recording.getMines()});
+		}
+		Level.setLevel(recording.getLevel());
+		GameReplay replay = new GameReplay(recording);
+		MineSweeper game = new MineSweeper(replay.getGame());
+		game.replay = replay;
+		return game;
+	}
+
+	/**
+	 * Play the events of a replayed game, waiting the recorded time before each one
+	 */
+	public void startReplay() {
+		if(replay == null || !replay.hasNext()) {
+			return;
+		}
+		replayStep = new PauseTransition(Duration.millis(replay.getNextDelayMillis()));
+		replayStep.setOnFinished(e->{
+			updateState(replay.playNext());
+			gui.refreshChangedTiles();
+			startReplay();
+		});
+		replayStep.play();
+	}
+
+	/*
+	 * Record the steps and marks of the game, the recording of the game
+	 * played most recently is kept to be replayed
+	 */
+	private void startRecording(GameRecording recording) {
+		this.recording = recording;
+		lastEventNanos = getActiveNanos();
+	}
+
+	/*
+	 * Record a step or mark on a tile with the time since the last one,
+	 * leaving out the time the timer was paused so the recording agrees with it
+	 */
+	private void record(int row, int col, int action) {
+		if(recording != null && engine.isPlaying()) {
+			long deltaMillis = (getActiveNanos() - lastEventNanos) / 1000000L;
+			// move on by whole milliseconds so rounding does not add up over a game
+			lastEventNanos += deltaMillis * 1000000L;
+			recording.record(getMinefield().getBoard().getIndex(row, col), action, deltaMillis);
+			lastRecording = recording;
+		}
+	}
+
+	/**
+	 * Create a minefield based on the parameters from the level,
+	 * it is populated when the first tile is stepped on
 	 * @param level represents the difficulty level currently set.
+	 * @return MineField representing the minefield
 	 */
-	private void createMinefield(Level level) {
-		minefield = new MineField(Level.getLevelArray(Level.getLevel()));
-		minefield.populate();
+	private static MineField createMinefield(Level level) {
+		MineField minefield = new MineField(Level.getLevelArray(level));
+		minefield.setSafeZone(Level.isSafeZone());
+		return minefield;
+	}
+
+	/**
+	 * Step on a tile, stopping the game if it has been won or lost. If the first
+	 * step has to generate the board it is generated on another thread and the
+	 * step is finished once it is ready, see startInBackground.
+	 * @param row int representing the row to step on
+	 * @param col int representing the col to step on
+	 * @return GameState representing the state of the game after the step,
+	 * PLAYING while the board is generated
+	 */
+	public GameState stepOnTile(int row, int col) {
+		record(row, col, GameRecording.STEP);
+		if(engine.isGeneratedOnStart()) {
+			startInBackground(row, col);
+			return GameState.PLAYING;
+		}
+		return step(row, col);
+	}
+
+	/*
+	 * Generate the board on another thread, as searching for a no guess board
+	 * takes up to its time budget and placing the mines of a large board takes
+	 * a while. Clicks are ignored and the timer is paused until the board is
+	 * ready, then the first step is taken and shown by the GUI. A game that has
+	 * been replaced by the time its board is ready is dropped. If the search for
+	 * a no guess board ran out of time the status says the board may need a guess.
+	 */
+	private void startInBackground(int row, int col) {
+		generating = this;
+		pauseTimer();
+		status.set(GENERATING);
+		CompletableFuture.supplyAsync(()->{
+			engine.start(row, col);
+			// read on the generating thread as the generator is shared between games
+			return !noGuess || getGenerator().isLastCleared();
+		}, getStarter()).whenComplete((cleared, e)->{
+			Platform.runLater(()->{
+				if(generating == this) {
+					generating = null;
+					status.set(e == null && !cleared ? NEEDS_GUESS : "");
+					playTimer();
+					if(e != null) {
+						// the board is generated again on the next step
+						e.printStackTrace();
+					}
+					else {
+						gui.showState(step(row, col));
+					}
+				}
+			});
+		});
+	}
+
+	/*
+	 * Step on a tile of a game whose board is ready
+	 */
+	private GameState step(int row, int col) {
+		GameState state = engine.stepOnTile(row, col);
+		if(recording != null) {
+			// the seed of a no guess board is only chosen on the first step
+			recording.setSeed(engine.getSeed());
+		}
+		updateState(state);
+		return state;
+	}
+
+	/**
+	 * Toggle whether a tile is marked, stopping the game if it has been won
+	 * @param row int representing the row to mark
+	 * @param col int representing the col to mark
+	 * @return GameState representing the state of the game after marking
+	 */
+	public GameState markTile(int row, int col) {
+		record(row, col, GameRecording.MARK);
+		GameState state = engine.markTile(row, col);
+		updateState(state);
+		return state;
+	}
+
+	/*
+	 * Update the flag displays and stop the timer once the game has finished,
+	 * writing the recording of a finished game to a file
+	 */
+	private void updateState(GameState state) {
+		updateFlagStrings();
+		if(state != GameState.PLAYING) {
+			stopTimer();
+			setPlaying(false);
+			if(recording != null) {
+				try {
+					recording.write(RECORDING_FILE);
+				} catch (IOException e) {
+					// the recording is still kept to be replayed until the game is closed
+				}
+			}
+		}
+	}
+
+	/*
+	 * Update the flagged and mines remaining displays,
+	 * only setting the properties when their values change.
+	 */
+	private void updateFlagStrings() {
+		if(getMinefield().getTilesMarked() != displayedFlagged) {
+			displayedFlagged = getMinefield().getTilesMarked();
+			tilesFlagged.set(String.format("%3d", displayedFlagged));
+		}
+		if(getMinefield().getMinesNotMarked() != displayedRemaining) {
+			displayedRemaining = getMinefield().getMinesNotMarked();
+			minesRemaining.set(String.format("%3d", displayedRemaining));
+		}
 	}
 
 	/*
 	 * Update the time string for the GUI timer display
 	 */
 	private void updateTimeString() {
+		int time = engine.getTime();
 		if(time < 60) {
 			timeString.set(String.format("%02d", time));	
 		}
@@ -69,26 +386,17 @@ public class MineSweeper {
 	 * 
 	 */
 	public static String getTimeAsString(int time) {
-		if(time < 60) {
-			if(time > 1) {
-				return String.format("%s", String.format("%02d seconds", time));	
-			}
-			else {
-				return String.format("%s", String.format("%02d second", time));	
-			}
-		}
-		else if (time < 120)  {
-			return String.format("%s",String.format("%02d minute and %02d seconds",time / 60, time % 60));
-		}
-		else {
-			return String.format("%s",String.format("%02d minutes and %02d seconds",time / 60, time % 60));
-		}
+		return Score.getTimeAsString(time);
 	}
 	
 	/**
 	 * Methods to control the games timer
 	 */
 	public static void playTimer() {
+		if(pauseStartNanos != 0) {
+			pausedNanos += System.nanoTime() - pauseStartNanos;
+			pauseStartNanos = 0;
+		}
 		if(MineSweeper.isPlaying()) {
 			timer.play();
 		}
@@ -99,14 +407,24 @@ public class MineSweeper {
 	}
 
 	public static void pauseTimer() {
+		if(pauseStartNanos == 0) {
+			pauseStartNanos = System.nanoTime();
+		}
 		timer.pause();
 	}
+
+	/*
+	 * Nanoseconds the timer has not been paused for
+	 */
+	private static long getActiveNanos() {
+		return (pauseStartNanos != 0 ? pauseStartNanos : System.nanoTime()) - pausedNanos;
+	}
 	
 	/*
 	 * Increment the game time field and update timeString field
 	 */
 	private void incrementTime(){
-		time++;
+		engine.incrementTime();
 		updateTimeString();
 	}
 	
@@ -117,16 +435,80 @@ public class MineSweeper {
 
 	public void setGui(GUI gui) { this.gui = gui; }
 
-	public MineField getMinefield() { return minefield; }
+	public Game getEngine() { return engine; }
+
+	public MineField getMinefield() { return engine.getMinefield(); }
 
 	public static boolean isPlaying() { return playing; }
 
 	public void setPlaying( boolean playing) {MineSweeper.playing = playing; }
 
-	public int getTime() { return time; }
+	public int getTime() { return engine.getTime(); }
+
+	public long getSeed() { return engine.getSeed(); }
+
+	public static synchronized NoGuessGenerator getGenerator() {
+		if(generator == null) {
+			generator = new NoGuessGenerator();
+		}
+		return generator;
+	}
+
+	/**
+	 * Returns the recording of the game played most recently, read from
+	 * the file written at the end of the last game if none has been played yet
+	 * @return GameRecording representing the recording, or null if there is none
+	 */
+	public static GameRecording getLastRecording() {
+		if(lastRecording == null && Files.exists(RECORDING_FILE)) {
+			try {
+				lastRecording = GameRecording.read(RECORDING_FILE);
+			} catch (IOException e) {
+				// no game to replay
+			}
+		}
+		return lastRecording;
+	}
+
+	public boolean isReplay() { return replay != null; }
+
+	/**
+	 * Checks if the board of the game is being generated, clicks are ignored until it is ready
+	 * @return boolean true while the board is generated
+	 */
+	public boolean isGenerating() { return generating == this; }
+
+	/*
+	 * Returns the thread boards are generated on when the first tile is stepped on
+	 */
+	private static synchronized ExecutorService getStarter() {
+		if(starter == null) {
+			starter = Executors.newSingleThreadExecutor(r->{
+				Thread thread = new Thread(r, "board-generator");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		return starter;
+	}
+
+	public GameRecording getRecording() { return recording; }
+
+	public static synchronized BoardPool getBoardPool() {
+		if(boardPool == null) {
+			boardPool = new BoardPool();
+		}
+		return boardPool;
+	}
 	
 	public StringProperty getlevelString() { return level; }
 	
 	public StringProperty getTimeString() { return timeString; } 
 
+	public StringProperty getTilesFlagged() { return tilesFlagged; }
+
+	public StringProperty getMinesRemaining() { return minesRemaining; }
+
+	public StringProperty getStatus() { return status; }
+
 }
@@ -0,0 +1,70 @@
+package gui;
+
+import application.MineSweeper;
+import javafx.collections.ObservableList;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.layout.TilePane;
+import model.MineField;
+
+/**
+ * ButtonFieldView Class to display the minefield as a TileButton for every tile
+ *
+ * @author Daniel Newsom
+ * @version 3.0
+ *
+ */
+public class ButtonFieldView implements MineFieldView {
+
+	private TilePane mainGameField;
+	private ScrollPane mainGamePane;
+
+	/**
+	 * Constructor for the ButtonFieldView class
+	 * @param game represents the current game
+	 */
+	public ButtonFieldView(MineSweeper game) {
+		MineField minefield = game.getMinefield();
+		mainGameField = new TilePane();
+		mainGameField.setPrefColumns(minefield.getCols());
+		mainGameField.setPadding(new Insets(15));
+		mainGameField.setAlignment(Pos.CENTER);
+
+		/*
+		 * Create a button for each minetile and set the event handler
+		 */
+		for(int row = 0; row < minefield.getRows(); row++) {
+			for(int col = 0; col < minefield.getCols(); col++) {
+				TileButton tileButton = new TileButton(row,col,minefield.getMineTile(row,col), game);
+				tileButton.setPadding(new Insets(2));
+				tileButton.setMinSize(30, 30);
+				tileButton.setOnMouseClicked(e->{tileButton.clickOnTile(e);});
+				mainGameField.getChildren().add(tileButton);
+
+			}
+		}
+		mainGamePane = new ScrollPane(mainGameField);
+	}
+
+	@Override
+	public Node getNode() {
+		return mainGamePane;
+	}
+
+	@Override
+	public void refreshAll() {
+		for(Node tile : mainGameField.getChildren()) {
+			((TileButton)tile).setButtonContent();
+		}
+	}
+
+	@Override
+	public void refreshTiles(int[] tiles, int count) {
+		ObservableList<Node> tileButtons = mainGameField.getChildren();
+		for(int i = 0; i < count; i++) {
+			((TileButton)tileButtons.get(tiles[i])).setButtonContent();
+		}
+	}
+}
@@ -0,0 +1,159 @@
+package gui;
+
+import application.MineSweeper;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.paint.Color;
+import javafx.scene.text.TextAlignment;
+import model.MineBoard;
+import model.MineField;
+
+/**
+ * CanvasFieldView Class to draw the minefield on a single canvas.
+ * Only the visible part of the minefield is drawn and a single mouse
+ * handler works out which tile was clicked.
+ *
+ * @author Daniel Newsom
+ * @version 3.0
+ *
+ */
+public class CanvasFieldView extends ScrollingFieldView {
+
+	private static final Color HIDDEN_COLOUR = Color.rgb(221, 221, 221);
+	private static final Color REVEALED_COLOUR = Color.rgb(244, 244, 244);
+	private static final Color BORDER_COLOUR = Color.rgb(170, 170, 170);
+
+	private MineSweeper game;
+	private MineField minefield;
+	private Canvas canvas;
+
+	/**
+	 * Constructor for the CanvasFieldView class
+	 * @param game represents the current game
+	 */
+	public CanvasFieldView(MineSweeper game) {
+		super(game.getMinefield().getBoard());
+		this.game = game;
+		this.minefield = game.getMinefield();
+
+		/*
+		 * Create the canvas sized to the visible area rather than the whole minefield
+		 * and set the event handler to handle clicks on the canvas
+		 */
+		canvas = new Canvas();
+		canvas.setManaged(false);
+		canvas.widthProperty().bind(viewport.widthProperty());
+		canvas.heightProperty().bind(viewport.heightProperty());
+		canvas.setOnMouseClicked(e->{clickOnCanvas(e);});
+		viewport.getChildren().add(canvas);
+	}
+
+	/*
+	 * Work out which tile was clicked and pass the click to the game
+	 */
+	private void clickOnCanvas(MouseEvent event) {
+		int row = (int) ((event.getY() + getScrollY()) / TILE_SIZE);
+		int col = (int) ((event.getX() + getScrollX()) / TILE_SIZE);
+		if(row < minefield.getRows() && col < minefield.getCols()) {
+			TileButton.clickOnTile(game, row, col, event.getButton());
+		}
+	}
+
+	@Override
+	public void refreshAll() {
+		GraphicsContext gc = canvas.getGraphicsContext2D();
+		gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+		if(board.getTotalTiles() == 0) {
+			return;
+		}
+
+		/*
+		 * Draw only the tiles inside the visible area
+		 */
+		int firstRow = (int) (getScrollY() / TILE_SIZE);
+		int lastRow = Math.min(board.getRows() - 1, (int) ((getScrollY() + canvas.getHeight()) / TILE_SIZE));
+		int firstCol = (int) (getScrollX() / TILE_SIZE);
+		int lastCol = Math.min(board.getCols() - 1, (int) ((getScrollX() + canvas.getWidth()) / TILE_SIZE));
+		for(int row = firstRow; row <= lastRow; row++) {
+			for(int col = firstCol; col <= lastCol; col++) {
+				drawTile(gc, row, col);
+			}
+		}
+	}
+
+	@Override
+	public void refreshTiles(int[] tiles, int count) {
+		// when more tiles changed than are visible it is quicker to redraw the visible area
+		if(count > getVisibleTiles()) {
+			refreshAll();
+			return;
+		}
+		GraphicsContext gc = canvas.getGraphicsContext2D();
+		int cols = board.getCols();
+		for(int i = 0; i < count; i++) {
+			drawTile(gc, tiles[i] / cols, tiles[i] % cols);
+		}
+	}
+
+	/*
+	 * Return the number of tiles that fit in the visible area
+	 */
+	private double getVisibleTiles() {
+		return (canvas.getWidth() / TILE_SIZE + 1) * (canvas.getHeight() / TILE_SIZE + 1);
+	}
+
+	/*
+	 * Draw a single tile based upon its current state,
+	 * tiles outside the visible area are skipped
+	 */
+	private void drawTile(GraphicsContext gc, int row, int col) {
+		double x = col * TILE_SIZE - getScrollX();
+		double y = row * TILE_SIZE - getScrollY();
+		if(x + TILE_SIZE < 0 || y + TILE_SIZE < 0 || x > canvas.getWidth() || y > canvas.getHeight()) {
+			return;
+		}
+		drawTile(gc, board.getState(board.getIndex(row, col)), x, y);
+	}
+
+	/**
+	 * Draw a tile at a position on a canvas
+	 * @param gc GraphicsContext of the canvas to draw on
+	 * @param state int representing the packed state of the tile, as held by MineBoard
+	 * @param x double representing the left of the tile
+	 * @param y double representing the top of the tile
+	 */
+	static void drawTile(GraphicsContext gc, int state, double x, double y) {
+		boolean revealed = (state & MineBoard.REVEALED) != 0;
+		gc.setFill(revealed ? REVEALED_COLOUR : HIDDEN_COLOUR);
+		gc.fillRect(x, y, TILE_SIZE, TILE_SIZE);
+		gc.setStroke(BORDER_COLOUR);
+		gc.strokeRect(x + 0.5, y + 0.5, TILE_SIZE - 1, TILE_SIZE - 1);
+
+		if(revealed) {
+			if((state & MineBoard.MINED) != 0) {
+				drawImage(gc, Images.MINE.getImage(), x, y);
+			}
+			else if((state & MineBoard.NEIGHBOURS) > 0) {
+				int minedNeighbours = state & MineBoard.NEIGHBOURS;
+				gc.setFont(TileButton.NUMBER_FONT);
+				gc.setFill(TileButton.getTextColour(minedNeighbours));
+				gc.setTextAlign(TextAlignment.CENTER);
+				gc.setTextBaseline(VPos.CENTER);
+				gc.fillText(TileButton.getNumberText(minedNeighbours), x + TILE_SIZE / 2.0, y + TILE_SIZE / 2.0);
+			}
+		}
+		else if((state & MineBoard.MARKED) != 0) {
+			drawImage(gc, Images.FLAG.getImage(), x, y);
+		}
+	}
+
+	/*
+	 * Draw an image in the centre of a tile
+	 */
+	private static void drawImage(GraphicsContext gc, Image image, double x, double y) {
+		gc.drawImage(image, x + (TILE_SIZE - image.getWidth()) / 2, y + (TILE_SIZE - image.getHeight()) / 2);
+	}
+}
@@ -0,0 +1,190 @@
+package gui;
+
+import application.Main;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+import javafx.scene.control.TextFormatter;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.TilePane;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+import javafx.stage.Modality;
+import javafx.stage.Stage;
+import model.Level;
+
+/**
+ * CustomLevelDialog Class to display the popup for choosing the custom level parameters.
+ * The parameters are typed in and checked by Level.validateCustomArray, the OK button
+ * is only enabled while they are valid.
+ * 
+ * @author Daniel Newsom
+ * @version 3.0
+ *
+ */
+public class CustomLevelDialog {
+
+	/**
+	 * Method to get input from the user to enable custom game parameters
+	 */
+	public static void show() {	
+
+		int[] custom = Level.getLevelArray(Level.CUSTOM);
+		
+			/*
+			 * Create and initialise the popup window
+			 */
+	        final Stage dialog = new Stage();
+	        BorderPane rootPane = new BorderPane();
+	        dialog.setTitle("Custom Level");
+	        dialog.initModality(Modality.APPLICATION_MODAL);
+	        dialog.initOwner(Main.getStage());
+	        dialog.getIcons().add(Images.ICON.getImage());
+	        dialog.setHeight(250);
+	        dialog.setWidth(560);
+	        dialog.setResizable(false);
+	        
+			/*
+			 * Create and initialise title pane for the popup        
+			 */
+	        TilePane titlePane = new TilePane();
+	        titlePane.setAlignment(Pos.CENTER);
+	        Label titleLabel = new Label("Please choose your custom settings");
+	        titleLabel.setFont(new Font(18));
+	        titleLabel.setTextAlignment(TextAlignment.CENTER);
+	        titleLabel.setPadding(new Insets(15,0,15,0));
+	        titlePane.getChildren().add(titleLabel);
+	        
+	        /*
+	         * Create panes for the three inputs and labels 
+	         */
+	        HBox inputs = new HBox();
+	        inputs.setAlignment(Pos.CENTER);
+	        inputs.setPadding(new Insets(20));
+	        inputs.setSpacing(20);
+	        HBox rowsPane = new HBox();
+	        rowsPane.setSpacing(10);
+	        HBox columnsPane = new HBox();
+	        columnsPane.setSpacing(10);
+	        HBox minesPane = new HBox();
+	        minesPane.setSpacing(10);
+	        
+	        /*
+	         * Create pane for the buttons 
+	         */
+	        TilePane buttons = new TilePane();
+	        buttons.setPadding(new Insets(20));
+	        buttons.setHgap(10);
+	        BorderPane buttonsPane = new BorderPane();
+	        
+	        /*
+	         * Construct panes for each of the inputs containing
+	         * a label and a number field
+	         */
+	        Label rowsLabel = new Label("Rows: ");
+	        rowsLabel.setFont(new Font(15));
+	        TextField rowField = createNumberField(custom[0]);
+	        rowsPane.getChildren().addAll(rowsLabel, rowField);
+	        
+	        Label columnsLabel = new Label("Columns: ");
+	        columnsLabel.setFont(new Font(15));
+	        TextField columnField = createNumberField(custom[1]);
+	        columnsPane.getChildren().addAll(columnsLabel, columnField);
+	        
+	        Label minesLabel = new Label("Mines: ");
+	        minesLabel.setFont(new Font(15));
+	        TextField mineField = createNumberField(custom[2]);
+	        minesPane.getChildren().addAll(minesLabel, mineField);
+	        
+	        //Add three input panes to the main inputs pane
+	        inputs.getChildren().addAll(rowsPane, columnsPane, minesPane);
+	        
+	        /*
+	         * Create the buttons for applying the settings or cancelling
+	         * and set event handlers
+	         */
+	        Button okButton = new Button("OK");
+	        okButton.setMinWidth(75);
+	        //Set event to set custom parameters close window and start new game
+	        okButton.setOnMouseClicked(e->{	int[] input = getInput(rowField, columnField, mineField);
+											if(Level.validateCustomArray(input[0], input[1], input[2]) == null) {
+												Level.setCustomArray(input);
+												dialog.close();
+												Main.startGame(Main.getStage());
+											}});
+
+	        /*
+	         * Create the label showing why the parameters are not valid
+	         * and check the parameters whenever one changes
+	         */
+	        Label errorLabel = new Label();
+	        errorLabel.setTextFill(Color.RED);
+	        errorLabel.setPadding(new Insets(20));
+	        rowField.textProperty().addListener(e->{validate(rowField, columnField, mineField, errorLabel, okButton);});
+	        columnField.textProperty().addListener(e->{validate(rowField, columnField, mineField, errorLabel, okButton);});
+	        mineField.textProperty().addListener(e->{validate(rowField, columnField, mineField, errorLabel, okButton);});
+	        validate(rowField, columnField, mineField, errorLabel, okButton);
+
+	        Button cancelButton = new Button("Cancel");
+	        cancelButton.setMinWidth(75);
+	        cancelButton.setOnMouseClicked(e->{dialog.close();});
+	        
+	        //add buttons to buttons pane
+	        buttons.getChildren().addAll(okButton, cancelButton);
+	        buttonsPane.setRight(buttons);;
+	        buttonsPane.setLeft(errorLabel);
+	        
+	        //Add three main panes to root pane
+	        rootPane.setTop(titlePane);
+	        rootPane.setLeft(inputs);
+	        rootPane.setBottom(buttonsPane);
+	        
+	        //create and set scene and add to main window
+	        Scene dialogScene = new Scene(rootPane, 500, 40);
+	        dialog.setScene(dialogScene);
+	        dialog.show();
+		
+		
+	}
+
+	/*
+	 * Create a text field that only accepts up to nine digits
+	 */
+	private static TextField createNumberField(int value) {
+		TextField field = new TextField(Integer.toString(value));
+		field.setPrefColumnCount(6);
+		field.setTextFormatter(new TextFormatter<String>(change->{
+			return change.getControlNewText().matches("\\d{0,9}") ? change : null;
+		}));
+		return field;
+	}
+
+	/*
+	 * Read the rows, columns and mines from the fields, an empty field is read as 0
+	 */
+	private static int[] getInput(TextField rowField, TextField columnField, TextField mineField) {
+		int[] input = new int[3];
+		TextField[] fields = {rowField, columnField, mineField};
+		for (int i = 0; i < fields.length; i++) {
+			String text = fields[i].getText();
+			input[i] = text.isEmpty() ? 0 : Integer.parseInt(text);
+		}
+		return input;
+	}
+
+	/*
+	 * Show why the parameters are not valid and only enable the OK button when they are
+	 */
+	private static void validate(TextField rowField, TextField columnField, TextField mineField,
+			Label errorLabel, Button okButton) {
+		int[] input = getInput(rowField, columnField, mineField);
+		String error = Level.validateCustomArray(input[0], input[1], input[2]);
+		errorLabel.setText(error == null ? "" : error);
+		okButton.setDisable(error != null);
+	}
+}
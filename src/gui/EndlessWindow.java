@@ -0,0 +1,213 @@
+package gui;
+
+import application.Main;
+import application.MineSweeper;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Alert.AlertType;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Pane;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.text.Font;
+import javafx.stage.Stage;
+import model.EndlessField;
+import model.MineField;
+
+/**
+ * EndlessWindow Class to play a minefield with no edges in its own window.
+ * The minefield is drawn on a canvas the size of the window and is moved
+ * by dragging, scrolling or with the arrow keys. Chunks of the minefield
+ * away from the window are evicted as it moves.
+ *
+ * @author Daniel Newsom
+ * @version 3.0
+ *
+ */
+public class EndlessWindow {
+
+	private static final int TILE_SIZE = ScrollingFieldView.TILE_SIZE;
+	private static final int KEY_STEP = TILE_SIZE * 4;
+
+	private EndlessField field;
+	private boolean playing;
+	private Stage stage;
+	private Pane viewport;
+	private Canvas canvas;
+	private Label statusLabel;
+	private double offsetX;
+	private double offsetY;
+	private double dragX;
+	private double dragY;
+
+	/**
+	 * Create and display a new endless game, the first tile is stepped on
+	 * at the centre of the window
+	 */
+	public static void show() {
+		MineSweeper.pauseTimer();
+		new EndlessWindow().stage.showAndWait();
+		MineSweeper.playTimer();
+	}
+
+	/**
+	 * Constructor for the EndlessWindow class
+	 */
+	private EndlessWindow() {
+		stage = new Stage();
+		stage.setTitle("Endless MineSweeper");
+		stage.getIcons().add(Images.ICON.getImage());
+		stage.initOwner(Main.getStage());
+
+		/*
+		 * Create the clipped viewport holding the canvas
+		 */
+		viewport = new Pane();
+		viewport.setPrefSize(900, 600);
+		Rectangle clip = new Rectangle();
+		clip.widthProperty().bind(viewport.widthProperty());
+		clip.heightProperty().bind(viewport.heightProperty());
+		viewport.setClip(clip);
+		canvas = new Canvas();
+		canvas.setManaged(false);
+		canvas.widthProperty().bind(viewport.widthProperty());
+		canvas.heightProperty().bind(viewport.heightProperty());
+		viewport.getChildren().add(canvas);
+
+		/*
+		 * Create the status bar and new game button
+		 */
+		statusLabel = new Label();
+		statusLabel.setFont(new Font(15));
+		Button newGameButton = new Button("New Game");
+		newGameButton.setOnAction(e->{newGame();});
+		HBox statusPane = new HBox(20, newGameButton, statusLabel);
+		statusPane.setAlignment(Pos.CENTER_LEFT);
+		statusPane.setPadding(new Insets(10, 15, 10, 15));
+
+		BorderPane rootPane = new BorderPane();
+		rootPane.setTop(statusPane);
+		rootPane.setCenter(viewport);
+
+		/*
+		 * Set the event handlers for moving the minefield and clicking tiles
+		 */
+		canvas.setOnMousePressed(e->{dragX = e.getX(); dragY = e.getY();});
+		canvas.setOnMouseDragged(e->{moveBy(dragX - e.getX(), dragY - e.getY()); dragX = e.getX(); dragY = e.getY();});
+		canvas.setOnMouseClicked(e->{clickOnCanvas(e);});
+		canvas.setOnScroll(e->{moveBy(-e.getDeltaX(), -e.getDeltaY());});
+		viewport.widthProperty().addListener(e->{refresh();});
+		viewport.heightProperty().addListener(e->{refresh();});
+
+		Scene scene = new Scene(rootPane);
+		scene.setOnKeyPressed(e->{keyPressed(e);});
+		stage.setScene(scene);
+		newGame();
+	}
+
+	/*
+	 * Start a new game with a new world seed and step on the safe origin
+	 */
+	private void newGame() {
+		field = new EndlessField(MineField.newSeed(), EndlessField.MIN_MINES_PER_CHUNK);
+		playing = true;
+		offsetX = -viewport.getPrefWidth() / 2;
+		offsetY = -viewport.getPrefHeight() / 2;
+		field.stepOnTile(0, 0);
+		refresh();
+	}
+
+	/*
+	 * Work out which tile was clicked and step on or mark it,
+	 * a click at the end of a drag is ignored
+	 */
+	private void clickOnCanvas(MouseEvent event) {
+		if(!playing || !event.isStillSincePress()) {
+			return;
+		}
+		int row = (int) Math.floor((event.getY() + offsetY) / TILE_SIZE);
+		int col = (int) Math.floor((event.getX() + offsetX) / TILE_SIZE);
+		if(event.getButton() == MouseButton.SECONDARY) {
+			field.markTile(row, col);
+			refresh();
+		}
+		else if(event.getButton() == MouseButton.PRIMARY) {
+			if(!field.stepOnTile(row, col)) {
+				playing = false;
+				refresh();
+				Alert alert = new Alert(AlertType.INFORMATION);
+				alert.initOwner(stage);
+				alert.setTitle("Game over");
+				alert.setHeaderText("You stepped on a mine!");
+				alert.setContentText(String.format("You revealed %d tiles.", field.getTilesRevealed()));
+				alert.showAndWait();
+			}
+			else {
+				refresh();
+			}
+		}
+	}
+
+	/*
+	 * Move the visible area with the arrow keys
+	 */
+	private void keyPressed(KeyEvent event) {
+		switch (event.getCode()) {
+		case LEFT:
+			moveBy(-KEY_STEP, 0);
+			break;
+		case RIGHT:
+			moveBy(KEY_STEP, 0);
+			break;
+		case UP:
+			moveBy(0, -KEY_STEP);
+			break;
+		case DOWN:
+			moveBy(0, KEY_STEP);
+			break;
+		default:
+			break;
+		}
+	}
+
+	/*
+	 * Move the visible area by a number of pixels
+	 */
+	private void moveBy(double x, double y) {
+		offsetX += x;
+		offsetY += y;
+		refresh();
+	}
+
+	/*
+	 * Redraw every visible tile, generating chunks as they come into view
+	 * and evicting chunks that are no longer near it
+	 */
+	private void refresh() {
+		GraphicsContext gc = canvas.getGraphicsContext2D();
+		gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+		int firstRow = (int) Math.floor(offsetY / TILE_SIZE);
+		int lastRow = (int) Math.floor((offsetY + canvas.getHeight()) / TILE_SIZE);
+		int firstCol = (int) Math.floor(offsetX / TILE_SIZE);
+		int lastCol = (int) Math.floor((offsetX + canvas.getWidth()) / TILE_SIZE);
+		for(int row = firstRow; row <= lastRow; row++) {
+			for(int col = firstCol; col <= lastCol; col++) {
+				CanvasFieldView.drawTile(gc, field.getState(row, col), col * TILE_SIZE - offsetX, row * TILE_SIZE - offsetY);
+			}
+		}
+		field.clearChangedTiles();
+		field.evictOutside(firstRow, firstCol, lastRow, lastCol);
+		statusLabel.setText(String.format("Tiles revealed: %d    Flags: %d    Position: %d, %d",
+				field.getTilesRevealed(), field.getTilesMarked(), firstRow + (lastRow - firstRow) / 2,
+				firstCol + (lastCol - firstCol) / 2));
+	}
+}
@@ -1,18 +1,25 @@
 package gui;
 
+import java.util.Optional;
+
 import application.Main;
 import application.MineSweeper;
 import javafx.collections.ObservableList;
+import javafx.event.ActionEvent;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Node;
 import javafx.scene.Scene;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Alert.AlertType;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.CheckMenuItem;
 import javafx.scene.control.Label;
 import javafx.scene.control.Menu;
 import javafx.scene.control.MenuBar;
 import javafx.scene.control.MenuItem;
 import javafx.scene.control.RadioMenuItem;
-import javafx.scene.control.ScrollPane;
+import javafx.scene.control.SeparatorMenuItem;
 import javafx.scene.control.Toggle;
 import javafx.scene.control.ToggleGroup;
 import javafx.scene.image.ImageView;
@@ -25,8 +32,9 @@ import javafx.scene.layout.StackPane;
 import javafx.scene.layout.TilePane;
 import javafx.scene.layout.VBox;
 import javafx.scene.text.Font;
-import model.HighScores;
+import model.GameState;
 import model.Level;
+import model.MineField;
 
 /**
  * GUI Class to represent the main GUI of the game
@@ -40,8 +48,9 @@ public class GUI {
 
 	private MenuBar menuBar;
 	private ToggleGroup levelRadios;
+	private ToggleGroup rendererRadios;
 	private VBox mainWindow;
-	private TilePane mainGameField;
+	private MineFieldView mainGameField;
 	private TilePane statusPane;
 	private HBox levelPane;
 	private MineSweeper game;
@@ -97,6 +106,7 @@ public class GUI {
 		Menu gameMenu = new Menu("_Game");
 		Menu levelsMenu = new Menu("_Level");
 		Menu highscoresMenu = new Menu("_High Scores");
+		Menu viewMenu = new Menu("_View");
 
 		/*
 		 * Constructs the Game menu and adds the New Game and Quit items
@@ -110,7 +120,17 @@ public class GUI {
 		quit.setOnAction(e->{Main.exitGame();});
 		quit.setAccelerator(new KeyCodeCombination(KeyCode.Q,KeyCombination.CONTROL_DOWN));
 		
-		gameMenu.getItems().addAll(newGame, quit);
+		MenuItem endless = new MenuItem("_Endless mode");
+		endless.setOnAction(e->{EndlessWindow.show();});
+		endless.setAccelerator(new KeyCodeCombination(KeyCode.E,KeyCombination.CONTROL_DOWN));
+
+		MenuItem replay = new MenuItem("_Replay last game");
+		replay.setOnAction(e->{Main.replayLastGame();});
+		replay.setAccelerator(new KeyCodeCombination(KeyCode.R,KeyCombination.CONTROL_DOWN));
+		replay.setDisable(MineSweeper.getLastRecording() == null);
+		gameMenu.setOnShowing(e->{replay.setDisable(MineSweeper.getLastRecording() == null);});
+
+		gameMenu.getItems().addAll(newGame, replay, endless, quit);
 		
 		
 		/*
@@ -120,30 +140,121 @@ public class GUI {
 		for(Level level: Level.values()) {
 			RadioMenuItem temp = new RadioMenuItem(level.toString());
 			temp.setUserData(level);
-			temp.setOnAction(e->{Level.changeLevel(e,MineSweeper.isPlaying()); selectLevelMenuItem();});
-			temp.setAccelerator(new KeyCodeCombination(Level.getKeyCode(level), KeyCombination.CONTROL_DOWN));
+			temp.setOnAction(e->{changeLevel(e,MineSweeper.isPlaying()); selectLevelMenuItem();});
+			temp.setAccelerator(new KeyCodeCombination(getKeyCode(level), KeyCombination.CONTROL_DOWN));
 			levelsMenu.getItems().add(temp);
 			levelRadios.getToggles().add(temp);
 		}
 		selectLevelMenuItem();
 
+		CheckMenuItem noGuess = new CheckMenuItem("_No guess boards");
+		noGuess.setSelected(Level.isNoGuess());
+		noGuess.setOnAction(e->{Level.setNoGuess(noGuess.isSelected());});
+		CheckMenuItem safeZone = new CheckMenuItem("_Safe opening area");
+		safeZone.setSelected(Level.isSafeZone());
+		safeZone.setOnAction(e->{Level.setSafeZone(safeZone.isSelected());});
+		levelsMenu.getItems().addAll(new SeparatorMenuItem(), noGuess, safeZone);
+
 		MenuItem viewLevel = new MenuItem("_View current level");
-		viewLevel.setOnAction(e->{HighScores.displayLevelScores(Level.getLevel());});
+		viewLevel.setOnAction(e->{HighScoresView.displayLevelScores(Level.getLevel());});
 
 		MenuItem viewAll = new MenuItem("View _all");
-		viewAll.setOnAction(e->{HighScores.displayAllScores();});
+		viewAll.setOnAction(e->{HighScoresView.displayAllScores();});
 		
+		MenuItem statistics = new MenuItem("_Statistics");
+		statistics.setOnAction(e->{StatisticsView.show();});
+
 		MenuItem reset = new MenuItem("_Reset all");
-		reset.setOnAction(e->{HighScores.resetHighScoresConfirm();});
-		highscoresMenu.getItems().addAll(viewLevel, viewAll, reset);
+		reset.setOnAction(e->{HighScoresView.resetHighScoresConfirm();});
+		highscoresMenu.getItems().addAll(viewLevel, viewAll, statistics, reset);
 
 		/*
-		 * Add both menus to the menu bar
+		 * Create and add a menu item for each renderer in the Renderer enum and adds it to a toggle group.
+		 * Also sets the event handler for the item.
 		 */
-		menuBar.getMenus().addAll(gameMenu, levelsMenu, highscoresMenu);
+		rendererRadios = new ToggleGroup();
+		for(Renderer renderer: Renderer.values()) {
+			RadioMenuItem temp = new RadioMenuItem(renderer.toString());
+			temp.setUserData(renderer);
+			temp.setSelected(renderer == Renderer.getRenderer());
+			temp.setOnAction(e->{changeRenderer((Renderer) temp.getUserData());});
+			viewMenu.getItems().add(temp);
+			rendererRadios.getToggles().add(temp);
+		}
+
+		/*
+		 * Add all menus to the menu bar
+		 */
+		menuBar.getMenus().addAll(gameMenu, levelsMenu, highscoresMenu, viewMenu);
 
 	}
 
+	/**
+	 * Method to change the level when new level is selected from the menu 
+	 * @param e triggering event
+	 * @param isPlaying shows whether the current game is still playing or finished
+	 */
+	private static void changeLevel(ActionEvent e, boolean isPlaying) {
+		if(isPlaying) {
+			
+			/*
+			 * If still playing show confirmation before changing level and starting new game
+			 * if not set new level and start new game without confirmation
+			 */ 
+			Alert alert;
+			Optional<ButtonType> result;
+			MineSweeper.pauseTimer();
+			
+			alert = new Alert(AlertType.CONFIRMATION);
+			alert.initOwner(Main.getStage());
+			alert.setTitle("Confirm");
+			alert.setHeaderText("Changing level will start new game.");
+			alert.setContentText("Are you sure?");
+
+			result = alert.showAndWait();
+			if (result.get() == ButtonType.OK){
+				RadioMenuItem menuItem = (RadioMenuItem) e.getSource();
+				if(menuItem.getUserData() == Level.CUSTOM) {CustomLevelDialog.show();}
+				Level.setLevel((Level) menuItem.getUserData());
+				Main.startGame(Main.getStage());
+			}else {
+				alert.close();
+			}
+			MineSweeper.playTimer();
+		}
+		else {
+			RadioMenuItem menuItem = (RadioMenuItem) e.getSource();
+			if(menuItem.getUserData() == Level.CUSTOM) {CustomLevelDialog.show();}
+			Level.setLevel((Level) menuItem.getUserData());
+			Main.startGame(Main.getStage());
+		}
+		
+	}
+
+	/*
+	 * returns a KeyCode value to assign to the menu shortcut
+	 */
+	private static KeyCode getKeyCode(Level level) {
+		switch (level) {
+		case BEGINNER:
+			return KeyCode.DIGIT1;
+		case EASY:
+			return KeyCode.DIGIT2;
+		case MEDIUM:
+			return KeyCode.DIGIT3;
+		case HARD:
+			return KeyCode.DIGIT4;
+		case CHALLENGING:
+			return KeyCode.DIGIT5;
+		case CRAZY:
+			return KeyCode.DIGIT6;
+		case CUSTOM:
+			return KeyCode.C;
+		default:
+			return null;
+		}
+	}
+
 	/*
 	 * Selects the correct level menu item based on the currently selected level
 	 */
@@ -167,8 +278,20 @@ public class GUI {
 		mainWindow.setAlignment(Pos.CENTER);
 		createMainGameField();
 		constructStatusPane();
-		ScrollPane mainGamePane = new ScrollPane(mainGameField);
-		mainWindow.getChildren().addAll(statusPane, mainGamePane);
+		mainWindow.getChildren().addAll(statusPane, mainGameField.getNode());
+	}
+
+	/*
+	 * Change the renderer and redraw the current game with it
+	 */
+	private void changeRenderer(Renderer renderer) {
+		Renderer.setRenderer(renderer);
+		Node oldField = mainGameField.getNode();
+		createMainGameField();
+		mainGameField.refreshAll();
+		game.getMinefield().clearChangedTiles();
+		mainWindow.getChildren().set(mainWindow.getChildren().indexOf(oldField), mainGameField.getNode());
+		Main.getStage().sizeToScene();
 	}
 	
 	/*
@@ -192,7 +315,7 @@ public class GUI {
 		ImageView tilesFlaggedImage = new ImageView(Images.FLAG.getImage());
 		Label tilesFlaggedLabel = new Label();
 		tilesFlaggedLabel.setFont(new Font(20));
-		tilesFlaggedLabel.textProperty().bind(game.getMinefield().getTilesFlagged());
+		tilesFlaggedLabel.textProperty().bind(game.getTilesFlagged());
 		tilesFlaggedPane.getChildren().addAll(tilesFlaggedImage, tilesFlaggedLabel);
 		
 		ImageView timeImage = new ImageView(Images.CLOCK.getImage());
@@ -204,7 +327,7 @@ public class GUI {
 		ImageView minesRemainingImage = new ImageView(Images.MINE.getImage());
 		Label minesRemainingLabel = new Label();
 		minesRemainingLabel.setFont(new Font(20));
-		minesRemainingLabel.textProperty().bind(game.getMinefield().getMinesRemaining());
+		minesRemainingLabel.textProperty().bind(game.getMinesRemaining());
 		minesRemainingPane.getChildren().addAll(minesRemainingImage, minesRemainingLabel);
 		
 		statusPane.getChildren().addAll(tilesFlaggedPane, timePane, minesRemainingPane);
@@ -212,26 +335,20 @@ public class GUI {
 	}
 
 	/*
-	 * Constructs the main minefield representaion
+	 * Constructs the main minefield representaion using
+	 * the renderer selected for the size of the minefield
 	 */
 	private void createMainGameField() {
-		mainGameField = new TilePane();
-		mainGameField.setPrefColumns(game.getMinefield().getCols());
-		mainGameField.setPadding(new Insets(15));
-		mainGameField.setAlignment(Pos.CENTER);
-		
-		/*
-		 * Create a button for each minetile and set the event handler
-		 */
-		for(int row = 0; row < game.getMinefield().getRows(); row++) {
-			for(int col = 0; col < game.getMinefield().getCols(); col++) {
-				TileButton tileButton = new TileButton(row,col,game.getMinefield().getMineTile(row,col), game);
-				tileButton.setPadding(new Insets(2));
-				tileButton.setMinSize(30, 30);
-				tileButton.setOnMouseClicked(e->{tileButton.clickOnTile(e);});
-				mainGameField.getChildren().add(tileButton);
-
-			}
+		switch (Renderer.getRendererFor(game.getMinefield().getTotalTiles())) {
+		case CANVAS:
+			mainGameField = new CanvasFieldView(game);
+			break;
+		case VIRTUAL:
+			mainGameField = new VirtualFieldView(game);
+			break;
+		default:
+			mainGameField = new ButtonFieldView(game);
+			break;
 		}
 	}
 
@@ -245,19 +362,40 @@ public class GUI {
 		levelLabel.textProperty().bind(game.getlevelString());
 		levelLabel.setFont(new Font(15));
 		levelLabel.setPadding(new Insets(10));;
-		levelPane.getChildren().add(levelLabel);
+		Label statusLabel = new Label();
+		statusLabel.textProperty().bind(game.getStatus());
+		statusLabel.setFont(new Font(15));
+		levelPane.getChildren().addAll(levelLabel, statusLabel);
 	}
 	
 	/**
 	 * Refreshes all tileButtons to display relevant image.
 	 */
 	public void refreshGameField() {
+		mainGameField.refreshAll();
+		game.getMinefield().clearChangedTiles();
+	}
+
+	/**
+	 * Displays the game after a step that finished once its board was generated
+	 * @param state GameState representing the state after the step
+	 */
+	public void showState(GameState state) {
+		TileButton.showState(game, state);
+	}
 
-		for(int i = 0; i<game.getMinefield().getTotalTiles();i++) {
-			ObservableList<Node> tiles = mainGameField.getChildren();
-			TileButton tile = (TileButton)tiles.get(i);
-			tile.setButtonContent();
+	/**
+	 * Refreshes only the tileButtons whose mineTiles have changed
+	 * since the last refresh, or all of them if too many changed to be listed.
+	 */
+	public void refreshChangedTiles() {
+		MineField minefield = game.getMinefield();
+		if (minefield.isAllChanged()) {
+			mainGameField.refreshAll();
+		} else {
+			mainGameField.refreshTiles(minefield.getChangedTiles(), minefield.getChangedCount());
 		}
+		minefield.clearChangedTiles();
 	}
 }
 
@@ -0,0 +1,279 @@
+package gui;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+import application.Main;
+import application.MineSweeper;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Alert.AlertType;
+import javafx.scene.control.Button;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextInputDialog;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.StackPane;
+import javafx.scene.layout.TilePane;
+import javafx.scene.layout.VBox;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.TextAlignment;
+import javafx.stage.Stage;
+import model.CustomScore;
+import model.GameRecording;
+import model.HighScores;
+import model.Level;
+import model.Score;
+
+/**
+ * HighScoresView Class to display and enter high scores for the minesweeper game
+ * @author Daniel Newsom
+ * @version 3.0
+ *
+ */
+public class HighScoresView {
+
+	/**
+	 * Add a score to high scores, asking for a name if it is a new high score
+	 * @param level level to add score to
+	 * @param time int representing time to add
+	 * @param recording GameRecording of the game the score was set in, the score is not added without one
+	 * @return boolean true if highscore added, false otherwise
+	 */
+	public static boolean addScore(Level level, int time, GameRecording recording) {
+		boolean added = false;
+		String name = "Player";
+		/*
+		 * If time is < the last entry on the highscores list for level
+		 */
+		if(HighScores.isHighScore(level, time)) {
+
+			/*
+			 * Display dialog requesting name
+			 */
+			TextInputDialog dialog = new TextInputDialog();
+			dialog.setTitle("New high score!");
+			dialog.setHeaderText("Congratulations you have set a high score!");
+			dialog.setContentText("Please enter your name:\n(Max 25 characters)");
+			dialog.initOwner(Main.getStage());
+			Optional<String> result = dialog.showAndWait();
+			/*
+			 * Check and adjust name input as required
+			 */
+			if (result.isPresent() && result.get().length() <= 25){
+				name = result.get();
+				if(name.length() == 0) {
+					name = "Player";
+				}
+			}
+			else {
+				try {
+					name = result.get();
+				} catch (NoSuchElementException e) {} // if Cancel clicked leave name as player
+				if(name.length() >= 25) {
+					name = name.substring(0,25);
+				}
+			}
+		}
+		added = HighScores.addScore(level, time, name, recording);
+		if(!added && HighScores.isHighScore(level, time)) {
+			Alert alert = new Alert(AlertType.WARNING);
+			alert.initOwner(Main.getStage());
+			alert.setTitle("Score not verified");
+			alert.setHeaderText("The score could not be verified");
+			alert.setContentText(recording == null ? "The game was not recorded, so the score has not been added."
+					: "Replaying the recording of the game did not win it in the time given, so the score has not been added.");
+			alert.showAndWait();
+		}
+		displayLevelScores(Level.getLevel());
+		return added;
+	}
+
+
+	/**
+	 * Create and display popup window showing
+	 * high scores for the given level
+	 * @param level level to show scores for
+	 */
+	public static void displayLevelScores(Level level) {
+		MineSweeper.pauseTimer();
+
+		final Stage dialog = new Stage();
+
+		dialog.setTitle("High Scores");
+		dialog.getIcons().add(Images.ICON.getImage());
+		dialog.setResizable(false);
+
+		BorderPane rootPane = new BorderPane();
+		VBox mainPane = createScorePane(level, 25, 25);
+		BorderPane buttonPane = new BorderPane();
+		buttonPane.setPadding(new Insets(20));
+
+
+		Button okButton = new Button("OK");
+		okButton.setOnMouseClicked(e->{dialog.close();});
+		okButton.setMinWidth(75);
+		okButton.setFont(Font.font(15));
+		buttonPane.setRight(okButton);
+
+		rootPane.setCenter(mainPane);
+		rootPane.setBottom(buttonPane);
+
+		Scene dialogScene = new Scene(rootPane);
+		dialog.setScene(dialogScene);
+		dialog.showAndWait();     
+		MineSweeper.playTimer();
+	}
+
+	/**
+	 * Displays popup to show highscores for all levels
+	 */
+	public static void displayAllScores() {
+
+		MineSweeper.pauseTimer();
+
+		final Stage dialog = new Stage();
+		dialog.setTitle("High Scores");
+		dialog.setResizable(false);
+		dialog.getIcons().add(Images.ICON.getImage());
+		BorderPane rootPane = new BorderPane();
+		StackPane titlePane = new StackPane();
+		BorderPane scorePane = new BorderPane();
+		TilePane levelsPane = new TilePane();
+		levelsPane.setPrefColumns(3);
+		StackPane customPane = new StackPane();
+		BorderPane buttonPane = new BorderPane();
+		buttonPane.setPadding(new Insets(20));
+
+		Label titleLabel = new Label("HIGH SCORES" + "\n\n");
+		titleLabel.setFont(Font.font(null, FontWeight.EXTRA_BOLD, 40));
+		titlePane.getChildren().add(titleLabel);
+
+		for(int i = 0; i < Level.values().length -1; i++) {
+			levelsPane.getChildren().add(createScorePane(Level.values()[i], 15, 15));
+		}
+
+		customPane.getChildren().add(createScorePane(Level.CUSTOM, 15, 15));
+		scorePane.setCenter(levelsPane);
+		scorePane.setBottom(customPane);
+
+		Button okButton = new Button("OK");
+		okButton.setOnMouseClicked(e->{dialog.close();});
+		okButton.setMinWidth(75);
+		okButton.setFont(Font.font(15));
+		buttonPane.setRight(okButton);
+
+		rootPane.setTop(titlePane);
+		rootPane.setCenter(scorePane);
+		rootPane.setBottom(buttonPane);
+
+		Scene dialogScene = new Scene(rootPane);
+		dialog.setScene(dialogScene);
+		dialog.showAndWait();     
+
+		MineSweeper.playTimer();
+	}
+
+	/*
+	 * Creates a pane displaying the scores for a given level using
+	 * font and padding value input.
+	 */
+	private static VBox createScorePane(Level level, int fontSize, int padding) {
+
+		VBox mainPane = new VBox();
+		mainPane.setAlignment(Pos.CENTER);
+		HBox scorePane = new HBox();
+		scorePane.setAlignment(Pos.CENTER);
+		scorePane.setPadding(new Insets(padding));
+		Label levelLabel = new Label("\n" + level.getDescriptionName().toUpperCase() + "\n" + level.getLevelParameters() + "\n");
+		levelLabel.setFont(Font.font(null, FontWeight.EXTRA_BOLD, fontSize));
+		levelLabel.setTextAlignment(TextAlignment.CENTER);
+
+		Label namesLabel = new Label(getHighScoreNames(level));
+		namesLabel.setFont(Font.font(null, FontWeight.BOLD, fontSize));
+		namesLabel.setPadding(new Insets(padding));
+		scorePane.getChildren().add(namesLabel);
+
+		Label scoresLabel = new Label(getHighScores(level));
+		scoresLabel.setFont(new Font(fontSize));
+		scoresLabel.setPadding(new Insets(padding));
+		scoresLabel.setTextAlignment(TextAlignment.LEFT);
+		scorePane.getChildren().add(scoresLabel);
+
+		if(level.equals(Level.CUSTOM)) {
+			Label levelDetailsLabel = new Label(getHighScoreDetails(level));
+			levelDetailsLabel.setFont(Font.font(null, FontWeight.BOLD, fontSize));
+			levelDetailsLabel.setPadding(new Insets(padding));
+			levelDetailsLabel.setTextAlignment(TextAlignment.LEFT);
+			scorePane.getChildren().add(levelDetailsLabel);
+
+			levelLabel.setText("\n" + level.getDescriptionName().toUpperCase() + "\n");
+		}
+
+		mainPane.getChildren().addAll(levelLabel, scorePane);
+
+		return mainPane;
+
+	}
+
+	/*
+	 * Create string showing the highscore names for creating the score pane
+	 */
+	private static String getHighScoreNames(Level level) {
+		List<Score> scores = HighScores.getScores(level);
+		String outputString = "";
+		for (Score score : scores) {
+			outputString += score.getName() + "\n";
+		}
+		return outputString;
+	}
+
+	/*
+	 * Create string showing the highscores for creating the score pane
+	 */
+	private static String getHighScores(Level level) {
+		List<Score> scores = HighScores.getScores(level);
+		String outputString = "";
+		for (Score score : scores) {
+			outputString += Score.getTimeAsString(score.getTime()) + (score.isVerified() ? " \u2713" : "") + "\n";
+		}
+		return outputString;
+	}
+
+	/*
+	 * Create string showing the highscore level details for creating the 
+	 * score pane for custom level
+	 */
+	private static String getHighScoreDetails(Level level) {
+		List<Score> scores = HighScores.getScores(level);
+		String outputString = "";
+		for (Score score : scores) {
+			CustomScore customScore = (CustomScore)score;
+			outputString += customScore.getlevelDetailsString() + "\n";
+		}
+		return outputString;
+	}
+
+	/**
+	 * Display confirmation to reset highscores
+	 */
+	public static void resetHighScoresConfirm() {
+		MineSweeper.pauseTimer();
+		Alert alert = new Alert(AlertType.CONFIRMATION);
+		alert.initOwner(Main.getStage());
+		alert.setTitle("Confirm");
+		alert.setHeaderText("Reset highScores");
+		alert.setContentText("Are you sure?");
+
+		Optional<ButtonType> result = alert.showAndWait();
+		if (result.get() == ButtonType.OK){
+			HighScores.resetSettings();
+		}
+		MineSweeper.playTimer();
+	}
+}
@@ -1,31 +1,46 @@
 package gui;
 
+import javafx.scene.image.Image;
+
 /**
- * Images Enum to represent the different images in the game
- * 
+ * Images Enum to represent the different images in the game.
+ * Each image is decoded once, the first time it is used, and then shared.
+ *
  * @author Daniel Newsom
  * @version 3.0
  */
 public enum Images {
-	FLAG("images/flag.png"), 
+	FLAG("images/flag.png"),
 	MINE("images/mine.png"),
 	CLOCK("images/clock.png"),
 	ICON("images/icon.png");
 
 	private String imagePath;
-	
+	private Image image;
+
 	/*
 	 * Constructor for the Image Enum
 	 */
 	Images(String imagePath) {
 		this.imagePath = imagePath;
 	}
-	
+
+	/**
+	 * return the decoded image for the parameters value, loading it on first use
+	 * @return Image object containing the image to use
+	 */
+	public synchronized Image getImage() {
+		if(image == null) {
+			image = new Image(imagePath);
+		}
+		return image;
+	}
+
 	/**
-	 * return a string representing the image path for the parameters value 
-	 * @return ImageView object containing the image to use
+	 * return a string representing the image path for the parameters value
+	 * @return String containing the path of the image
 	 */
-	public String getImage() {
+	public String getImagePath() {
 		return imagePath;
 	}
 }
@@ -0,0 +1,31 @@
+package gui;
+
+import javafx.scene.Node;
+
+/**
+ * MineFieldView Interface for the different ways of displaying the minefield
+ *
+ * @author Daniel Newsom
+ * @version 3.0
+ *
+ */
+public interface MineFieldView {
+
+	/**
+	 * Return the node to add to the main window
+	 * @return Node displaying the minefield
+	 */
+	public Node getNode();
+
+	/**
+	 * Redraw every tile of the minefield
+	 */
+	public void refreshAll();
+
+	/**
+	 * Redraw the given tiles of the minefield
+	 * @param tiles int[] containing the indexes of the tiles to redraw
+	 * @param count int representing the number of valid entries in tiles
+	 */
+	public void refreshTiles(int[] tiles, int count);
+}
@@ -0,0 +1,67 @@
+package gui;
+
+/**
+ * Renderer Enum to represent and store the currently selected way of drawing the minefield
+ *
+ * @author Daniel Newsom
+ * @version 3.0
+ *
+ */
+public enum Renderer {
+
+	AUTOMATIC("Automatic"),
+	BUTTONS("Buttons"),
+	VIRTUAL("Virtual buttons"),
+	CANVAS("Canvas");
+
+	/*
+	 * Number of tiles above which the automatic renderer draws on a canvas
+	 */
+	public static final int CANVAS_THRESHOLD = 2500;
+
+	/*
+	 * Number of tiles above which a button for every tile is too many to create,
+	 * the buttons renderer creates buttons only for the visible area instead
+	 */
+	public static final int MAX_BUTTON_TILES = 10000;
+
+	private String descriptionName;
+	private static Renderer renderer = Renderer.AUTOMATIC;
+
+	/**
+	 * Constructor for the Enum
+	 * @param descriptionName representing name for toString()
+	 */
+	Renderer(String descriptionName) {
+		this.descriptionName = descriptionName;
+	}
+
+	/**
+	 * Returns the renderer to use for a minefield based upon the selected renderer
+	 * and the size of the minefield
+	 * @param totalTiles int representing the number of tiles in the minefield
+	 * @return Renderer to use, never AUTOMATIC
+	 */
+	public static Renderer getRendererFor(int totalTiles) {
+		if(renderer == AUTOMATIC) {
+			return totalTiles > CANVAS_THRESHOLD ? CANVAS : BUTTONS;
+		}
+		if(renderer == BUTTONS && totalTiles > MAX_BUTTON_TILES) {
+			return VIRTUAL;
+		}
+		return renderer;
+	}
+
+	public String toString() {
+		return descriptionName;
+	}
+
+	/*
+	 * Getters and setters
+	 */
+	public static Renderer getRenderer() {return renderer;}
+
+	public static void setRenderer(Renderer renderer) {
+		Renderer.renderer = renderer;
+	}
+}
@@ -0,0 +1,135 @@
+package gui;
+
+import javafx.geometry.Insets;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.Pane;
+import javafx.scene.shape.Rectangle;
+import model.MineBoard;
+
+/**
+ * Abstract ScrollingFieldView Class for minefield views that only draw the
+ * visible area of the minefield. Holds the viewport pane and scroll bars,
+ * subclasses redraw the viewport whenever it moves or changes size.
+ *
+ * @author Daniel Newsom
+ * @version 3.0
+ *
+ */
+public abstract class ScrollingFieldView implements MineFieldView {
+
+	protected static final int TILE_SIZE = 30;
+	private static final int MAX_WIDTH = 900;
+	private static final int MAX_HEIGHT = 600;
+
+	protected MineBoard board;
+	protected Pane viewport;
+	private BorderPane mainGamePane;
+	private ScrollBar hBar;
+	private ScrollBar vBar;
+
+	/**
+	 * Constructor for the ScrollingFieldView class
+	 * @param board MineBoard to display
+	 */
+	public ScrollingFieldView(MineBoard board) {
+		this.board = board;
+
+		/*
+		 * Create the viewport sized to fit the minefield up to a maximum size
+		 * and clip anything drawn outside of it
+		 */
+		viewport = new Pane();
+		viewport.setPrefSize(Math.min(getFieldWidth(), MAX_WIDTH), Math.min(getFieldHeight(), MAX_HEIGHT));
+		Rectangle clip = new Rectangle();
+		clip.widthProperty().bind(viewport.widthProperty());
+		clip.heightProperty().bind(viewport.heightProperty());
+		viewport.setClip(clip);
+
+		/*
+		 * Create the scroll bars to move the visible area
+		 */
+		hBar = new ScrollBar();
+		hBar.setOrientation(Orientation.HORIZONTAL);
+		vBar = new ScrollBar();
+		vBar.setOrientation(Orientation.VERTICAL);
+
+		mainGamePane = new BorderPane();
+		mainGamePane.setPadding(new Insets(15));
+		mainGamePane.setCenter(viewport);
+		mainGamePane.setBottom(hBar);
+		mainGamePane.setRight(vBar);
+
+		/*
+		 * Set the event handlers to redraw on resizing and scrolling
+		 */
+		viewport.widthProperty().addListener(e->{updateScrollBars();});
+		viewport.heightProperty().addListener(e->{updateScrollBars();});
+		hBar.valueProperty().addListener(e->{updateViewport();});
+		vBar.valueProperty().addListener(e->{updateViewport();});
+		viewport.setOnScroll(e->{scrollViewport(e);});
+	}
+
+	/*
+	 * Set the range of the scroll bars to fit the visible area
+	 * and only show them when the minefield does not fit
+	 */
+	private void updateScrollBars() {
+		double hMax = Math.max(0, getFieldWidth() - viewport.getWidth());
+		double vMax = Math.max(0, getFieldHeight() - viewport.getHeight());
+		hBar.setMax(hMax);
+		hBar.setVisibleAmount(viewport.getWidth());
+		hBar.setValue(Math.min(hBar.getValue(), hMax));
+		hBar.setVisible(hMax > 0);
+		hBar.setManaged(hMax > 0);
+		vBar.setMax(vMax);
+		vBar.setVisibleAmount(viewport.getHeight());
+		vBar.setValue(Math.min(vBar.getValue(), vMax));
+		vBar.setVisible(vMax > 0);
+		vBar.setManaged(vMax > 0);
+		updateViewport();
+	}
+
+	/**
+	 * Redraw the minefield after the visible area has moved or changed size,
+	 * by default every visible tile is redrawn
+	 */
+	protected void updateViewport() {
+		refreshAll();
+	}
+
+	/*
+	 * Move the visible area with the mouse wheel
+	 */
+	private void scrollViewport(ScrollEvent event) {
+		vBar.setValue(Math.max(0, Math.min(vBar.getMax(), vBar.getValue() - event.getDeltaY())));
+		hBar.setValue(Math.max(0, Math.min(hBar.getMax(), hBar.getValue() - event.getDeltaX())));
+	}
+
+	@Override
+	public Node getNode() {
+		return mainGamePane;
+	}
+
+	/*
+	 * Getters for the visible area, in pixels from the top left of the minefield
+	 */
+	protected double getScrollX() {
+		return hBar.getValue();
+	}
+
+	protected double getScrollY() {
+		return vBar.getValue();
+	}
+
+	protected double getFieldWidth() {
+		return board.getCols() * TILE_SIZE;
+	}
+
+	protected double getFieldHeight() {
+		return board.getRows() * TILE_SIZE;
+	}
+}
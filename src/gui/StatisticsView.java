@@ -0,0 +1,152 @@
+package gui;
+
+import application.Main;
+import application.MineSweeper;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.chart.BarChart;
+import javafx.scene.chart.CategoryAxis;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.XYChart;
+import javafx.scene.control.Button;
+import javafx.scene.control.ChoiceBox;
+import javafx.scene.control.Label;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.stage.Stage;
+import model.HighScores;
+import model.Level;
+import model.Score;
+import model.TimeSketch;
+
+/**
+ * StatisticsView Class to display the statistics of the completion times of a level,
+ * or of every level, with a histogram of the times. The statistics are read from the
+ * sketch HighScores keeps for each level, percentiles are within a few percent.
+ *
+ * @author Daniel Newsom
+ * @version 3.0
+ *
+ */
+public class StatisticsView {
+
+	private static final String ALL_LEVELS = "All levels";
+	private static final int HISTOGRAM_BINS = 12;
+
+	/**
+	 * Create and display popup window showing the statistics of the current level
+	 */
+	public static void show() {
+		MineSweeper.pauseTimer();
+
+		final Stage dialog = new Stage();
+		dialog.setTitle("Statistics");
+		dialog.getIcons().add(Images.ICON.getImage());
+		dialog.initOwner(Main.getStage());
+		dialog.setResizable(false);
+
+		/*
+		 * Create the level choice, the statistics and the histogram
+		 */
+		ChoiceBox<Object> levelChoice = new ChoiceBox<Object>();
+		levelChoice.getItems().add(ALL_LEVELS);
+		levelChoice.getItems().addAll((Object[]) Level.values());
+		levelChoice.setValue(Level.getLevel());
+		HBox choicePane = new HBox(10, new Label("Level:"), levelChoice);
+		choicePane.setAlignment(Pos.CENTER_LEFT);
+
+		GridPane statisticsPane = new GridPane();
+		statisticsPane.setHgap(20);
+		statisticsPane.setVgap(5);
+
+		CategoryAxis timeAxis = new CategoryAxis();
+		timeAxis.setLabel("Time (seconds)");
+		NumberAxis countAxis = new NumberAxis();
+		countAxis.setLabel("Games");
+		BarChart<String, Number> histogram = new BarChart<String, Number>(timeAxis, countAxis);
+		histogram.setLegendVisible(false);
+		histogram.setAnimated(false);
+		histogram.setCategoryGap(2);
+		histogram.setPrefSize(600, 300);
+
+		levelChoice.setOnAction(e->{showStatistics(getStatistics(levelChoice.getValue()), statisticsPane, histogram);});
+		showStatistics(getStatistics(levelChoice.getValue()), statisticsPane, histogram);
+
+		Button okButton = new Button("OK");
+		okButton.setOnMouseClicked(e->{dialog.close();});
+		okButton.setMinWidth(75);
+		okButton.setFont(Font.font(15));
+		BorderPane buttonPane = new BorderPane();
+		buttonPane.setRight(okButton);
+
+		VBox mainPane = new VBox(15, choicePane, statisticsPane, histogram);
+		mainPane.setPadding(new Insets(20));
+		BorderPane rootPane = new BorderPane();
+		rootPane.setCenter(mainPane);
+		rootPane.setBottom(buttonPane);
+		BorderPane.setMargin(buttonPane, new Insets(0, 20, 20, 20));
+
+		dialog.setScene(new Scene(rootPane));
+		dialog.showAndWait();
+		MineSweeper.playTimer();
+	}
+
+	/*
+	 * Return the statistics of the level chosen, or of every level combined
+	 */
+	private static TimeSketch getStatistics(Object choice) {
+		if(choice instanceof Level) {
+			return HighScores.getStatistics((Level) choice);
+		}
+		return HighScores.getAllStatistics();
+	}
+
+	/*
+	 * Fill the statistics pane and histogram from a sketch
+	 */
+	private static void showStatistics(TimeSketch sketch, GridPane statisticsPane, BarChart<String, Number> histogram) {
+		statisticsPane.getChildren().clear();
+		addRow(statisticsPane, 0, "Games won", String.valueOf(sketch.getCount()));
+		if(sketch.getCount() > 0) {
+			addRow(statisticsPane, 1, "Mean", Score.getTimeAsString((int) Math.round(sketch.getMean())));
+			addRow(statisticsPane, 2, "Median", Score.getTimeAsString(sketch.getQuantile(0.5)));
+			addRow(statisticsPane, 3, "90th percentile", Score.getTimeAsString(sketch.getQuantile(0.9)));
+			addRow(statisticsPane, 4, "99th percentile", Score.getTimeAsString(sketch.getQuantile(0.99)));
+			addRow(statisticsPane, 5, "Fastest", Score.getTimeAsString(sketch.getMin()));
+			addRow(statisticsPane, 6, "Slowest", Score.getTimeAsString(sketch.getMax()));
+		}
+
+		/*
+		 * Create a bar for each range of times, fewer ranges if there are fewer distinct seconds
+		 */
+		XYChart.Series<String, Number> series = new XYChart.Series<String, Number>();
+		if(sketch.getCount() > 0) {
+			int bins = Math.min(HISTOGRAM_BINS, sketch.getMax() - sketch.getMin() + 1);
+			long[] counts = sketch.getHistogram(bins);
+			for (int i = 0; i < bins; i++) {
+				int start = sketch.getHistogramStart(bins, i);
+				int end = i + 1 < bins ? sketch.getHistogramStart(bins, i + 1) - 1 : sketch.getMax();
+				String range = start == end ? String.valueOf(start) : start + "-" + end;
+				series.getData().add(new XYChart.Data<String, Number>(range, counts[i]));
+			}
+		}
+		histogram.getData().clear();
+		histogram.getData().add(series);
+	}
+
+	/*
+	 * Add a row of the statistics pane
+	 */
+	private static void addRow(GridPane statisticsPane, int row, String name, String value) {
+		Label nameLabel = new Label(name);
+		nameLabel.setFont(Font.font(null, FontWeight.BOLD, 15));
+		Label valueLabel = new Label(value);
+		valueLabel.setFont(new Font(15));
+		statisticsPane.addRow(row, nameLabel, valueLabel);
+	}
+}
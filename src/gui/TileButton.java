@@ -14,7 +14,7 @@ import javafx.scene.input.MouseEvent;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
-import model.HighScores;
+import model.GameState;
 import model.Level;
 import model.MineTile;
 
@@ -25,10 +25,18 @@ import model.MineTile;
  */
 public class TileButton extends Button {
 
+	/*
+	 * Font and text shared by every button to display the number of mined neighbours
+	 */
+	public static final Font NUMBER_FONT = Font.font(null, FontWeight.EXTRA_BOLD, 15);
+	private static final String[] NUMBERS = {"", "1", "2", "3", "4", "5", "6", "7", "8"};
+
 	private int row;
 	private int col;
 	private MineTile tile;
 	private MineSweeper game;
+	private ImageView flagView;
+	private ImageView mineView;
 
 	/**
 	 * Constructor for the tileButton class
@@ -46,41 +54,86 @@ public class TileButton extends Button {
 	}
 
 	/**
-	 * Sets the objects graphic based upon its current mineTiles state
+	 * Move the button to a different tile, used when recycling
+	 * buttons in a virtualized view
+	 * @param row newly allocated row
+	 * @param col newly allocated column
+	 * @param tile newly allocated mineTile
+	 */
+	public void setTile(int row, int col, MineTile tile) {
+		this.row = row;
+		this.col = col;
+		this.tile = tile;
+	}
+
+	/**
+	 * Sets the objects graphic based upon its current mineTiles state.
+	 * Shared fonts and text and the buttons own image views are reused
+	 * so refreshing a button does not create any new objects.
 	 */
 	public void setButtonContent() {
 
-		if(tile.isMarked()) {
-			setGraphic(new ImageView(Images.FLAG.getImage()));
+		if(!tile.isRevealed()) {
+			// clear any content left from a previously allocated tile
+			setGraphic(tile.isMarked() ? getFlagView() : null);
+			setText(NUMBERS[0]);
+			setDisable(false);
+		}
+		else if(tile.isMined()) {
+			setGraphic(getMineView());
+			setText(NUMBERS[0]);
+			setDisable(false);
+		}
+		else if(tile.getMinedNeighbours() == 0) {
+			setGraphic(null);
+			setText(NUMBERS[0]);
+			setDisable(true);
 		}
 		else {
 			setGraphic(null);
+			setDisable(false);
+			this.setText(NUMBERS[tile.getMinedNeighbours()]);
+			this.setFont(NUMBER_FONT);
+			
+			Color textColour = getTextColour(tile.getMinedNeighbours());
+			
+			this.setTextFill(textColour);
 		}
-		if(tile.isRevealed()) {
+	}
 
-			if(tile.isMined()) {
-				setGraphic(new ImageView(Images.MINE.getImage()));
-			}
-			else if(tile.getMinedNeighbours() == 0) {
-				setDisable(true);
-			}
-			else {
-				this.setText("" + tile.getMinedNeighbours());
-				this.setFont(Font.font(null, FontWeight.EXTRA_BOLD, 15));
-				
-				Color textColour = getTextColour();
-				
-				this.setTextFill(textColour);
-			}
+	/*
+	 * Return the buttons image views, creating them on first use
+	 */
+	private ImageView getFlagView() {
+		if(flagView == null) {
+			flagView = new ImageView(Images.FLAG.getImage());
 		}
+		return flagView;
 	}
-	
-	
-	/*
+
+	private ImageView getMineView() {
+		if(mineView == null) {
+			mineView = new ImageView(Images.MINE.getImage());
+		}
+		return mineView;
+	}
+
+	/**
+	 * Return the shared text for a number of mined neighbours
+	 * @param minedNeighbours int representing the number of mined neighbours
+	 * @return String to display on the tile
+	 */
+	public static String getNumberText(int minedNeighbours) {
+		return NUMBERS[minedNeighbours];
+	}
+
+	/**
 	 * Return colour based on int from mined neighbours 
+	 * @param minedNeighbours int representing the number of mined neighbours
+	 * @return Color to display the number in
 	 */
-	private Color getTextColour() {
-		switch (tile.getMinedNeighbours()) {
+	public static Color getTextColour(int minedNeighbours) {
+		switch (minedNeighbours) {
 		case 1:
 			return Color.BLUE;
 		case 2:
@@ -106,72 +159,86 @@ public class TileButton extends Button {
 	 * method to handle clicking on the tileButton
 	 */
 	public void clickOnTile(MouseEvent event) {
-		boolean lost = false;
-		if(MineSweeper.isPlaying()) {
-			Alert alert;
-			Optional<ButtonType> result;
-			TileButton tile = (TileButton)event.getSource();
+		TileButton tile = (TileButton)event.getSource();
+		clickOnTile(game, tile.getRow(), tile.getColumn(), event.getButton());
+	}
+
+	/**
+	 * method to handle clicking on a tile of the game,
+	 * shared by every minefield view. Clicks on a replayed game
+	 * or while the board is being generated are ignored.
+	 * @param game represents the current game
+	 * @param row int representing the row clicked
+	 * @param col int representing the column clicked
+	 * @param button MouseButton used for the click
+	 */
+	public static void clickOnTile(MineSweeper game, int row, int col, MouseButton button) {
+		if(MineSweeper.isPlaying() && !game.isReplay() && !game.isGenerating()) {
+			GameState state = GameState.PLAYING;
 			//if left button clicked step on corresponding mineTile
-			if(event.getButton() == MouseButton.PRIMARY) {
-				if(!game.getMinefield().stepOnTile(tile.getRow(), tile.getColumn())) {
-					/*
-					 * If tile is a mine. 
-					 * Stop game, reveal all mines, refresh display
-					 * and display you lost dialog - ask to start a new game
-					 */
-					MineSweeper.stopTimer();
-					game.getMinefield().revealAllMines();
-					game.setPlaying(false);
-					lost = true;
-					game.getGui().refreshGameField();
-					alert = new Alert(AlertType.CONFIRMATION);
-					alert.initOwner(Main.getStage());
-					alert.setTitle("BANG");
-					alert.setHeaderText("Sorry you lost!\n"
-							+ Level.getLevel());
-					alert.setContentText("Start new Game?");
-
-					result = alert.showAndWait();
-					if (result.get() == ButtonType.OK){
-						Main.startGame(Main.getStage());
-					}
-				}
-			}
+			if(button == MouseButton.PRIMARY) {state = game.stepOnTile(row, col);}
 			//if right button clicked mark tile
-			if(event.getButton() == MouseButton.SECONDARY) {game.getMinefield().markTile(tile.getRow(), tile.getColumn());}
-			
+			if(button == MouseButton.SECONDARY) {state = game.markTile(row, col);}
+			showState(game, state);
+		}
+	}
+
+	/**
+	 * method to display the game after a step or mark, showing the
+	 * lost or won dialog if it has finished. Also used for the first
+	 * step of a game once its board has been generated.
+	 * @param game represents the current game
+	 * @param state GameState representing the state after the step or mark
+	 */
+	public static void showState(MineSweeper game, GameState state) {
+		Alert alert;
+		Optional<ButtonType> result;
+
+		if(state == GameState.LOST) {
 			/*
-			 * If all mines are revealed. 
-			 * Stop game, reveal all mines, refresh display
-			 * and display you won dialog - ask to start a new game
-			 *
+			 * If tile is a mine. 
+			 * The game has stopped and revealed all mines, refresh display
+			 * and display you lost dialog - ask to start a new game
 			 */
-			if(game.getMinefield().areAllMinesRevealed() && !lost) {
-				game.getMinefield().revealAllMines();
-				game.setPlaying(false);
-				MineSweeper.stopTimer();
-				game.getGui().refreshGameField();
-				
-				HighScores.addScore(Level.getLevel(), game.getTime());
-				
-				MineSweeper.stopTimer();
-				
-				alert = new Alert(AlertType.CONFIRMATION);
-				alert.initOwner(Main.getStage());
-				alert.setTitle("Congratulations!");
-				alert.setHeaderText("Well done you have won!\n"
-									+ Level.getLevel()
-									+"\nTime taken was " + MineSweeper.getTimeAsString(game.getTime()));
-				alert.setContentText("Start new ?");
-				result = alert.showAndWait();
-				if (result.get() == ButtonType.OK){
-					Main.startGame(Main.getStage());
-				}
+			game.getGui().refreshChangedTiles();
+			alert = new Alert(AlertType.CONFIRMATION);
+			alert.initOwner(Main.getStage());
+			alert.setTitle("BANG");
+			alert.setHeaderText("Sorry you lost!\n"
+					+ Level.getLevel());
+			alert.setContentText("Start new Game?");
+
+			result = alert.showAndWait();
+			if (result.get() == ButtonType.OK){
+				Main.startGame(Main.getStage());
 			}
-			//refresh display on each click
-			game.getGui().refreshGameField();
+		}
+		
+		/*
+		 * If all mines are revealed. 
+		 * The game has stopped and revealed all mines, refresh display
+		 * and display you won dialog - ask to start a new game
+		 *
+		 */
+		if(state == GameState.WON) {
+			game.getGui().refreshChangedTiles();
+			
+			HighScoresView.addScore(Level.getLevel(), game.getTime(), game.getRecording());
 			
+			alert = new Alert(AlertType.CONFIRMATION);
+			alert.initOwner(Main.getStage());
+			alert.setTitle("Congratulations!");
+			alert.setHeaderText("Well done you have won!\n"
+								+ Level.getLevel()
+								+"\nTime taken was " + MineSweeper.getTimeAsString(game.getTime()));
+			alert.setContentText("Start new ?");
+			result = alert.showAndWait();
+			if (result.get() == ButtonType.OK){
+				Main.startGame(Main.getStage());
+			}
 		}
+		//refresh changed tiles on each click
+		game.getGui().refreshChangedTiles();
 	}
 	
 	/*
@@ -0,0 +1,131 @@
+package gui;
+
+import java.util.ArrayList;
+
+import application.MineSweeper;
+import javafx.geometry.Insets;
+import javafx.scene.Group;
+import model.MineField;
+
+/**
+ * VirtualFieldView Class to display the minefield as TileButtons, creating
+ * buttons only for the tiles inside the visible area plus a small margin.
+ * Buttons are recycled onto new tiles as the minefield is scrolled.
+ *
+ * @author Daniel Newsom
+ * @version 3.0
+ *
+ */
+public class VirtualFieldView extends ScrollingFieldView {
+
+	/*
+	 * Number of extra rows and columns of buttons kept around the visible area
+	 */
+	private static final int OVERSCAN = 2;
+
+	private MineSweeper game;
+	private MineField minefield;
+	private Group tileGroup;
+	private ArrayList<TileButton> tileButtons;
+	private int firstRow = 0;
+	private int firstCol = 0;
+	private int windowRows = 0;
+	private int windowCols = 0;
+
+	/**
+	 * Constructor for the VirtualFieldView class
+	 * @param game represents the current game
+	 */
+	public VirtualFieldView(MineSweeper game) {
+		super(game.getMinefield().getBoard());
+		this.game = game;
+		this.minefield = game.getMinefield();
+		tileButtons = new ArrayList<TileButton>();
+		tileGroup = new Group();
+		viewport.getChildren().add(tileGroup);
+	}
+
+	/*
+	 * Return a button from the pool, creating a new one if the pool is too small
+	 */
+	private TileButton getTileButton(int slot) {
+		while(tileButtons.size() <= slot) {
+			TileButton tileButton = new TileButton(0, 0, minefield.getMineTile(0, 0), game);
+			tileButton.setPadding(new Insets(2));
+			tileButton.setMinSize(TILE_SIZE, TILE_SIZE);
+			tileButton.setPrefSize(TILE_SIZE, TILE_SIZE);
+			tileButton.setMaxSize(TILE_SIZE, TILE_SIZE);
+			tileButton.setOnMouseClicked(e->{tileButton.clickOnTile(e);});
+			tileButtons.add(tileButton);
+			tileGroup.getChildren().add(tileButton);
+		}
+		return tileButtons.get(slot);
+	}
+
+	@Override
+	public void refreshAll() {
+		// clear the window size so every button is moved and redrawn
+		windowRows = 0;
+		updateViewport();
+	}
+
+	/**
+	 * Work out the rows and columns covered by the visible area and margin.
+	 * If they have changed the buttons are moved onto the new tiles, otherwise
+	 * the buttons are only shifted to follow the scroll position.
+	 */
+	@Override
+	protected void updateViewport() {
+		if(board.getTotalTiles() == 0) {
+			return;
+		}
+		int newFirstRow = Math.max(0, (int) (getScrollY() / TILE_SIZE) - OVERSCAN);
+		int newFirstCol = Math.max(0, (int) (getScrollX() / TILE_SIZE) - OVERSCAN);
+		int newLastRow = Math.min(board.getRows() - 1, (int) ((getScrollY() + viewport.getHeight()) / TILE_SIZE) + OVERSCAN);
+		int newLastCol = Math.min(board.getCols() - 1, (int) ((getScrollX() + viewport.getWidth()) / TILE_SIZE) + OVERSCAN);
+
+		if(newFirstRow != firstRow || newFirstCol != firstCol
+				|| newLastRow - newFirstRow + 1 != windowRows || newLastCol - newFirstCol + 1 != windowCols) {
+			firstRow = newFirstRow;
+			firstCol = newFirstCol;
+			windowRows = newLastRow - newFirstRow + 1;
+			windowCols = newLastCol - newFirstCol + 1;
+			allocateButtons();
+		}
+		tileGroup.setTranslateX(firstCol * TILE_SIZE - getScrollX());
+		tileGroup.setTranslateY(firstRow * TILE_SIZE - getScrollY());
+	}
+
+	/*
+	 * Move every button in the pool onto a tile in the current window
+	 * and hide any that are not needed
+	 */
+	private void allocateButtons() {
+		int slots = windowRows * windowCols;
+		for(int slot = 0; slot < slots; slot++) {
+			int row = firstRow + slot / windowCols;
+			int col = firstCol + slot % windowCols;
+			TileButton tileButton = getTileButton(slot);
+			tileButton.setTile(row, col, minefield.getMineTile(row, col));
+			tileButton.relocate((col - firstCol) * TILE_SIZE, (row - firstRow) * TILE_SIZE);
+			tileButton.setVisible(true);
+			tileButton.setButtonContent();
+		}
+		for(int slot = slots; slot < tileButtons.size(); slot++) {
+			tileButtons.get(slot).setVisible(false);
+		}
+	}
+
+	@Override
+	public void refreshTiles(int[] tiles, int count) {
+		int cols = board.getCols();
+		for(int i = 0; i < count; i++) {
+			int row = tiles[i] / cols - firstRow;
+			int col = tiles[i] % cols - firstCol;
+			// only tiles inside the current window have a button
+			if(row >= 0 && row < windowRows && col >= 0 && col < windowCols) {
+				tileButtons.get(row * windowCols + col).setButtonContent();
+			}
+		}
+	}
+}
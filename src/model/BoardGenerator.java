@@ -0,0 +1,23 @@
+package model;
+
+/**
+ * BoardGenerator Interface for choosing the seed of a minefield once the
+ * first tile has been stepped on, used by a game to generate boards with
+ * properties that depend on where the player starts.
+ * 
+ * @author Daniel Newsom
+ * @version 3.0
+ *
+ */
+public interface BoardGenerator {
+
+	/**
+	 * Choose the seed to populate a minefield with when its safe area is
+	 * moved to the first tile stepped on
+	 * @param minefield MineField representing the dimensions, mines and safe zone setting
+	 * @param row int representing the row of the first tile
+	 * @param col int representing the col of the first tile
+	 * @return long representing the seed for MineField.populate(seed, row, col)
+	 */
+	long findSeed(MineField minefield, int row, int col);
+}
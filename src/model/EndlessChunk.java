@@ -0,0 +1,135 @@
+package model;
+
+/**
+ * EndlessChunk Class to hold one square chunk of an endless minefield.
+ * The tiles of the chunk are stored in a MineBoard, so each tile has the
+ * same packed state as a tile in a MineField.
+ *
+ * @author Daniel Newsom
+ * @version 3.0
+ *
+ */
+class EndlessChunk
+{
+	/*
+	 * Chunks are SIZE tiles square, SIZE is a power of two so the chunk and
+	 * position within it can be found from a tile's row and column with shifts
+	 */
+	static final int SHIFT = 5;
+	static final int SIZE = 1 << SHIFT;
+	static final int MASK = SIZE - 1;
+	static final int TILES = SIZE * SIZE;
+
+	private final int chunkRow;
+	private final int chunkCol;
+	private final MineBoard board = new MineBoard(SIZE, SIZE);
+	private boolean touched = false;
+
+	/**
+	 * Constructor for the EndlessChunk Class
+	 * @param chunkRow int representing the row of the chunk
+	 * @param chunkCol int representing the column of the chunk
+	 */
+	EndlessChunk(int chunkRow, int chunkCol)
+	{
+		this.chunkRow = chunkRow;
+		this.chunkCol = chunkCol;
+	}
+
+	/**
+	 * Pack the revealed and marked flags of every tile into bits
+	 * so the chunk can be evicted and restored later
+	 * @return long[] containing the revealed bits followed by the marked bits
+	 */
+	long[] saveState()
+	{
+		long[] bits = new long[2 * TILES / 64];
+		for (int index = 0; index < TILES; index++)
+		{
+			if (board.isRevealed(index))
+			{
+				bits[index >> 6] |= 1L << index;
+			}
+			if (board.isMarked(index))
+			{
+				bits[(TILES + index) >> 6] |= 1L << index;
+			}
+		}
+		return bits;
+	}
+
+	/**
+	 * Restore the revealed and marked flags saved by saveState
+	 * @param bits long[] containing the revealed bits followed by the marked bits
+	 */
+	void restoreState(long[] bits)
+	{
+		for (int index = 0; index < TILES; index++)
+		{
+			board.setRevealed(index, (bits[index >> 6] & (1L << index)) != 0);
+			board.setMarked(index, (bits[(TILES + index) >> 6] & (1L << index)) != 0);
+		}
+		touched = true;
+	}
+
+	/**
+	 * Return the key of the chunk containing a tile
+	 * @param row int representing the row of the tile
+	 * @param col int representing the column of the tile
+	 * @return long representing the key of the chunk
+	 */
+	static long keyOfTile(int row, int col)
+	{
+		return key(row >> SHIFT, col >> SHIFT);
+	}
+
+	/**
+	 * Return the key of a chunk, its row and column packed into a long
+	 * @param chunkRow int representing the row of the chunk
+	 * @param chunkCol int representing the column of the chunk
+	 * @return long representing the key of the chunk
+	 */
+	static long key(int chunkRow, int chunkCol)
+	{
+		return ((long) chunkRow << 32) | (chunkCol & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Return the index within its chunk of a tile
+	 * @param row int representing the row of the tile
+	 * @param col int representing the column of the tile
+	 * @return int representing the index in the chunk's board
+	 */
+	static int localIndex(int row, int col)
+	{
+		return ((row & MASK) << SHIFT) | (col & MASK);
+	}
+
+	/*
+	 * Getters and setters
+	 */
+	int getChunkRow()
+	{
+		return chunkRow;
+	}
+
+	int getChunkCol()
+	{
+		return chunkCol;
+	}
+
+	MineBoard getBoard()
+	{
+		return board;
+	}
+
+	boolean isTouched()
+	{
+		return touched;
+	}
+
+	void setTouched(boolean touched)
+	{
+		this.touched = touched;
+	}
+}
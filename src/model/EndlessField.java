@@ -0,0 +1,450 @@
+package model;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * EndlessField Class to represent a minefield with no edges. The field is
+ * split into square chunks which are generated from the world seed and the
+ * chunk's position the first time they are stepped on or displayed, so the
+ * same world seed always produces the same field.
+ *
+ * Chunks far from the visible area can be evicted. A chunk that has not
+ * been played on is simply generated again when it is next needed, a chunk
+ * that has keeps only its revealed and marked flags, so memory grows with
+ * the area explored rather than the area of the field.
+ *
+ * Tiles use the same packed state as a MineBoard and the flood reveal
+ * works the same way as in MineField, crossing from chunk to chunk.
+ * The 3x3 area around row 0, column 0 never contains a mine.
+ *
+ * @author Daniel Newsom
+ * @version 3.0
+ *
+ */
+public class EndlessField
+{
+	/*
+	 * Each chunk has a fixed number of mines, at least 15% of its tiles.
+	 * At that density a tile has no mined neighbours less than a quarter of
+	 * the time, well below the share at which such tiles join into regions
+	 * without end, so the regions a flood reveal opens are nearly always small.
+	 * This is only likely, not certain, as mines are placed at random.
+	 */
+	public static final int MIN_MINES_PER_CHUNK = EndlessChunk.TILES * 15 / 100;
+	public static final int CHUNK_SIZE = EndlessChunk.SIZE;
+
+	/*
+	 * Number of chunks kept loaded around the visible area when evicting
+	 */
+	private static final int EVICT_MARGIN = 2;
+
+	private long worldSeed;
+	private int minesPerChunk;
+	private Map<Long, EndlessChunk> chunks = new HashMap<Long, EndlessChunk>();
+	private Map<Long, long[]> savedChunks = new HashMap<Long, long[]>();
+	private long[] revealQueue = new long[256];
+	private long[] changedTiles = new long[256];
+	private int changedCount = 0;
+	private long tilesRevealed = 0;
+	private long tilesMarked = 0;
+
+	/**
+	 * Constructor for the EndlessField Class
+	 * @param worldSeed long representing the seed every chunk is generated from
+	 * @param minesPerChunk int representing the number of mines in each chunk
+	 */
+	public EndlessField(long worldSeed, int minesPerChunk)
+	{
+		this.worldSeed = worldSeed;
+		// keep the number of mines between the minimum and all but the safe area
+		this.minesPerChunk = Math.max(MIN_MINES_PER_CHUNK, Math.min(minesPerChunk, EndlessChunk.TILES - 9));
+	}
+
+	/**
+	 * Method to step on a tile and return false if mined, revealing the mine,
+	 * otherwise return true and reveal all connected tiles
+	 * with no mined neighbours
+	 * @param row int representing the row to step on
+	 * @param col int representing the col to step on
+	 * @return boolean false if mined true if not
+	 */
+	public boolean stepOnTile(int row, int col)
+	{
+		EndlessChunk chunk = getChunk(row, col);
+		int index = EndlessChunk.localIndex(row, col);
+		MineBoard board = chunk.getBoard();
+		//if tile is marked or already revealed return true
+		if (board.isMarked(index) || board.isRevealed(index))
+		{
+			return true;
+		}
+		revealTile(chunk, index, row, col);
+		//If tile is mined return false
+		if (board.isMined(index))
+		{
+			return false;
+		}
+		if (board.getMinedNeighbours(index) == 0)
+		{
+			floodReveal(row, col);
+		}
+		return true;
+	}
+
+	/*
+	 * Reveal the region around a revealed tile with no mined neighbours,
+	 * using the same work queue as MineField but holding the row and column
+	 * of each tile so the region can spread across any number of chunks.
+	 */
+	private void floodReveal(int startRow, int startCol)
+	{
+		int head = 0;
+		int tail = 0;
+		revealQueue[tail++] = pack(startRow, startCol);
+
+		while (head < tail)
+		{
+			long position = revealQueue[head++];
+			int row = unpackRow(position);
+			int col = unpackCol(position);
+			for (int r = row - 1; r <= row + 1; r++)
+			{
+				for (int c = col - 1; c <= col + 1; c++)
+				{
+					EndlessChunk chunk = getChunk(r, c);
+					int neighbour = EndlessChunk.localIndex(r, c);
+					int state = chunk.getBoard().getState(neighbour);
+					// skip tiles that are revealed, marked or mined
+					if ((state & (MineBoard.REVEALED | MineBoard.MARKED | MineBoard.MINED)) == 0)
+					{
+						revealTile(chunk, neighbour, r, c);
+						if ((state & MineBoard.NEIGHBOURS) == 0)
+						{
+							if (tail == revealQueue.length)
+							{
+								revealQueue = compact(revealQueue, head, tail);
+								tail -= head;
+								head = 0;
+							}
+							revealQueue[tail++] = pack(r, c);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Method to toggle whether a tile is marked.
+	 * @param row int representing the row to mark.
+	 * @param col int representing the col to mark.
+	 */
+	public void markTile(int row, int col)
+	{
+		EndlessChunk chunk = getChunk(row, col);
+		int index = EndlessChunk.localIndex(row, col);
+		MineBoard board = chunk.getBoard();
+		if (board.isRevealed(index))
+		{
+			return;
+		}
+		board.setMarked(index, !board.isMarked(index));
+		tilesMarked += board.isMarked(index) ? 1 : -1;
+		chunk.setTouched(true);
+		tileChanged(chunk, index, row, col);
+	}
+
+	/*
+	 * Set a tile as revealed and record it as changed
+	 */
+	private void revealTile(EndlessChunk chunk, int index, int row, int col)
+	{
+		chunk.getBoard().setRevealed(index, true);
+		chunk.setTouched(true);
+		tilesRevealed++;
+		tileChanged(chunk, index, row, col);
+	}
+
+	/*
+	 * Record that a tile has changed since the changed tiles were last cleared
+	 */
+	private void tileChanged(EndlessChunk chunk, int index, int row, int col)
+	{
+		MineBoard board = chunk.getBoard();
+		if (!board.isChanged(index))
+		{
+			board.setChanged(index, true);
+			if (changedCount == changedTiles.length)
+			{
+				changedTiles = compact(changedTiles, 0, changedCount);
+			}
+			changedTiles[changedCount++] = pack(row, col);
+		}
+	}
+
+	/**
+	 * Method to clear the list of changed tiles,
+	 * used once the changes have been displayed
+	 */
+	public void clearChangedTiles()
+	{
+		for (int i = 0; i < changedCount; i++)
+		{
+			int row = unpackRow(changedTiles[i]);
+			int col = unpackCol(changedTiles[i]);
+			EndlessChunk chunk = chunks.get(EndlessChunk.keyOfTile(row, col));
+			if (chunk != null)
+			{
+				chunk.getBoard().setChanged(EndlessChunk.localIndex(row, col), false);
+			}
+		}
+		changedCount = 0;
+	}
+
+	/**
+	 * Return the packed state of a tile, generating its chunk if needed.
+	 * The state uses the bit masks of MineBoard.
+	 * @param row int representing the row of the tile
+	 * @param col int representing the column of the tile
+	 * @return int containing the neighbour count and state flags
+	 */
+	public int getState(int row, int col)
+	{
+		return getChunk(row, col).getBoard().getState(EndlessChunk.localIndex(row, col));
+	}
+
+	/**
+	 * Evict the chunks that are not near an area of tiles, normally the visible area.
+	 * Chunks that have been played on keep their revealed and marked tiles.
+	 * Changed tiles should be cleared first.
+	 * @param firstRow int representing the top row of the area
+	 * @param firstCol int representing the left column of the area
+	 * @param lastRow int representing the bottom row of the area
+	 * @param lastCol int representing the right column of the area
+	 */
+	public void evictOutside(int firstRow, int firstCol, int lastRow, int lastCol)
+	{
+		int minChunkRow = (firstRow >> EndlessChunk.SHIFT) - EVICT_MARGIN;
+		int maxChunkRow = (lastRow >> EndlessChunk.SHIFT) + EVICT_MARGIN;
+		int minChunkCol = (firstCol >> EndlessChunk.SHIFT) - EVICT_MARGIN;
+		int maxChunkCol = (lastCol >> EndlessChunk.SHIFT) + EVICT_MARGIN;
+		Iterator<Map.Entry<Long, EndlessChunk>> entries = chunks.entrySet().iterator();
+		while (entries.hasNext())
+		{
+			Map.Entry<Long, EndlessChunk> entry = entries.next();
+			EndlessChunk chunk = entry.getValue();
+			if (chunk.getChunkRow() < minChunkRow || chunk.getChunkRow() > maxChunkRow
+					|| chunk.getChunkCol() < minChunkCol || chunk.getChunkCol() > maxChunkCol)
+			{
+				if (chunk.isTouched())
+				{
+					savedChunks.put(entry.getKey(), chunk.saveState());
+				}
+				entries.remove();
+			}
+		}
+	}
+
+	/*
+	 * Return the chunk containing a tile, generating it if it is not loaded
+	 */
+	private EndlessChunk getChunk(int row, int col)
+	{
+		long key = EndlessChunk.keyOfTile(row, col);
+		EndlessChunk chunk = chunks.get(key);
+		if (chunk == null)
+		{
+			chunk = generateChunk(row >> EndlessChunk.SHIFT, col >> EndlessChunk.SHIFT);
+			long[] saved = savedChunks.remove(key);
+			if (saved != null)
+			{
+				chunk.restoreState(saved);
+			}
+			chunks.put(key, chunk);
+		}
+		return chunk;
+	}
+
+	/*
+	 * Generate a chunk's mines and the mined neighbours of its tiles,
+	 * which needs the mines of the eight chunks around it as well
+	 */
+	private EndlessChunk generateChunk(int chunkRow, int chunkCol)
+	{
+		EndlessChunk chunk = new EndlessChunk(chunkRow, chunkCol);
+		MineBoard board = chunk.getBoard();
+		int firstRow = chunkRow << EndlessChunk.SHIFT;
+		int firstCol = chunkCol << EndlessChunk.SHIFT;
+		for (int dr = -1; dr <= 1; dr++)
+		{
+			for (int dc = -1; dc <= 1; dc++)
+			{
+				int[] mines = getMinePositions(chunkRow + dr, chunkCol + dc);
+				for (int mine : mines)
+				{
+					int row = ((chunkRow + dr) << EndlessChunk.SHIFT) + (mine >> EndlessChunk.SHIFT);
+					int col = ((chunkCol + dc) << EndlessChunk.SHIFT) + (mine & EndlessChunk.MASK);
+					if (dr == 0 && dc == 0)
+					{
+						board.setMined(mine, true);
+					}
+					//Increment the neighbours that are inside this chunk
+					for (int r = Math.max(firstRow, row - 1); r <= Math.min(firstRow + EndlessChunk.MASK, row + 1); r++)
+					{
+						for (int c = Math.max(firstCol, col - 1); c <= Math.min(firstCol + EndlessChunk.MASK, col + 1); c++)
+						{
+							board.addNeighbour(EndlessChunk.localIndex(r, c));
+						}
+					}
+				}
+			}
+		}
+		return chunk;
+	}
+
+	/*
+	 * Return the index within a chunk of each of its mines, chosen with Floyd's
+	 * sampling algorithm from a seed made of the world seed and the chunk position
+	 */
+	private int[] getMinePositions(int chunkRow, int chunkCol)
+	{
+		/*
+		 * Find the tiles of the safe area around the origin that are in this chunk,
+		 * in index order, from the rows and columns the area shares with the chunk
+		 */
+		int firstRow = chunkRow << EndlessChunk.SHIFT;
+		int firstCol = chunkCol << EndlessChunk.SHIFT;
+		int[] safeIndexes = new int[9];
+		int safeCount = 0;
+		for (int row = Math.max(-1, firstRow); row <= Math.min(1, firstRow + EndlessChunk.MASK); row++)
+		{
+			for (int col = Math.max(-1, firstCol); col <= Math.min(1, firstCol + EndlessChunk.MASK); col++)
+			{
+				safeIndexes[safeCount++] = EndlessChunk.localIndex(row, col);
+			}
+		}
+
+		SplittableRandom rand = new SplittableRandom(chunkSeed(chunkRow, chunkCol));
+		long[] mined = new long[EndlessChunk.TILES >> 6];
+		int[] mines = new int[minesPerChunk];
+		int candidates = EndlessChunk.TILES - safeCount;
+		int count = 0;
+		for (int j = candidates - minesPerChunk; j < candidates; j++)
+		{
+			int index = skipSafeTiles(rand.nextInt(j + 1), safeIndexes, safeCount);
+			// if already chosen use candidate j, which cannot have been chosen yet
+			if ((mined[index >> 6] & (1L << index)) != 0)
+			{
+				index = skipSafeTiles(j, safeIndexes, safeCount);
+			}
+			mined[index >> 6] |= 1L << index;
+			mines[count++] = index;
+		}
+		return mines;
+	}
+
+	/*
+	 * Return the index of a candidate tile counting only the tiles outside the safe area
+	 */
+	private static int skipSafeTiles(int candidate, int[] safeIndexes, int safeCount)
+	{
+		int index = candidate;
+		for (int i = 0; i < safeCount && safeIndexes[i] <= index; i++)
+		{
+			index++;
+		}
+		return index;
+	}
+
+	/*
+	 * Mix the chunk position into the world seed so neighbouring chunks are unrelated
+	 */
+	private long chunkSeed(int chunkRow, int chunkCol)
+	{
+		return new SplittableRandom(worldSeed ^ (EndlessChunk.key(chunkRow, chunkCol) * 0x9E3779B97F4A7C15L)).nextLong();
+	}
+
+	/*
+	 * Return a copy of part of an array with twice the room
+	 */
+	private static long[] compact(long[] array, int from, int to)
+	{
+		long[] copy = new long[array.length * 2];
+		System.arraycopy(array, from, copy, 0, to - from);
+		return copy;
+	}
+
+	/**
+	 * Pack the row and column of a tile into a long
+	 * @param row int representing the row of the tile
+	 * @param col int representing the column of the tile
+	 * @return long representing the position of the tile
+	 */
+	public static long pack(int row, int col)
+	{
+		return ((long) row << 32) | (col & 0xFFFFFFFFL);
+	}
+
+	public static int unpackRow(long position)
+	{
+		return (int) (position >> 32);
+	}
+
+	public static int unpackCol(long position)
+	{
+		return (int) position;
+	}
+
+	/*
+	 * Getter Methods
+	 */
+
+	/**
+	 * Returns the positions of the tiles changed by stepOnTile and markTile
+	 * since clearChangedTiles was last called, packed by pack(row, col).
+	 * Only the first getChangedCount() entries are valid.
+	 * @return long[] containing the positions of the changed tiles
+	 */
+	public long[] getChangedTiles()
+	{
+		return changedTiles;
+	}
+
+	public int getChangedCount()
+	{
+		return changedCount;
+	}
+
+	public long getWorldSeed()
+	{
+		return worldSeed;
+	}
+
+	public int getMinesPerChunk()
+	{
+		return minesPerChunk;
+	}
+
+	public long getTilesRevealed()
+	{
+		return tilesRevealed;
+	}
+
+	public long getTilesMarked()
+	{
+		return tilesMarked;
+	}
+
+	public int getLoadedChunks()
+	{
+		return chunks.size();
+	}
+
+	public int getSavedChunks()
+	{
+		return savedChunks.size();
+	}
+}
@@ -0,0 +1,175 @@
+package model;
+
+/**
+ * Game Class to represent a single game of minesweeper without any user interface.
+ * Handles stepping on and marking tiles, detects the end of the game
+ * and keeps the time taken, so games can be played without a display.
+ * 
+ * Mines are not placed where the player starts, the minefield is
+ * populated when the first tile is stepped on with the safe area
+ * around that tile. A minefield whose mines were placed beforehand
+ * only has the mines in the safe area moved out of it.
+ * 
+ * @author Daniel Newsom
+ * @version 3.0
+ *
+ */
+public class Game {
+
+	private MineField minefield;
+	private GameState state;
+	private int time;
+	private long seed;
+	private boolean started;
+	private BoardGenerator generator;
+
+	/**
+	 * Constructor for the Game class, creates a minefield
+	 * that is populated when the first tile is stepped on
+	 * @param levelArray int[] representing number of rows, columns and mines
+	 * @param seed long representing the seed used to populate the minefield
+	 */
+	public Game(int[] levelArray, long seed) {
+		this(new MineField(levelArray), seed);
+	}
+
+	/**
+	 * Constructor for the Game class using a minefield,
+	 * populated with a new seed on the first step if it has not been already
+	 * @param minefield MineField representing the minefield to play
+	 */
+	public Game(MineField minefield) {
+		this(minefield, MineField.newSeed());
+	}
+
+	/**
+	 * Constructor for the Game class using a minefield
+	 * @param minefield MineField representing the minefield to play
+	 * @param seed long representing the seed used if the minefield has not been populated
+	 */
+	public Game(MineField minefield, long seed) {
+		this.minefield = minefield;
+		this.seed = minefield.isPopulated() ? minefield.getSeed() : seed;
+		state = GameState.PLAYING;
+		time = 0;
+		started = false;
+	}
+
+	/**
+	 * Constructor for the Game class resuming a saved game that has been started
+	 * @param minefield MineField representing the restored minefield
+	 * @param time int representing the time already taken
+	 */
+	Game(MineField minefield, int time) {
+		this(minefield, minefield.getSeed());
+		this.time = time;
+		started = true;
+	}
+
+	/**
+	 * Place the mines around the first tile stepped on, choosing the seed with
+	 * the generator if there is one, or move the mines of a minefield that was
+	 * populated beforehand out of the safe area. Called by the first step if it
+	 * has not been already, as generating the board can take a while it can be
+	 * called on another thread first, see isGeneratedOnStart.
+	 * Does nothing once the game has started.
+	 * @param row int representing the row of the first tile
+	 * @param col int representing the col of the first tile
+	 */
+	public void start(int row, int col) {
+		if(started) {
+			return;
+		}
+		if(generator != null) {
+			seed = generator.findSeed(minefield, row, col);
+			minefield.populate(seed, row, col);
+		}
+		else if(minefield.isPopulated()) {
+			minefield.clearSafeArea(row, col);
+		}
+		else {
+			minefield.populate(seed, row, col);
+		}
+		started = true;
+	}
+
+	/**
+	 * Checks if starting the game generates the board, searching with the generator
+	 * or placing every mine, rather than only moving mines already placed
+	 * @return boolean true if the game has not started and its board is not populated
+	 */
+	public boolean isGeneratedOnStart() {
+		return !started && (generator != null || !minefield.isPopulated());
+	}
+
+	/**
+	 * Step on a tile, if it is mined the game is lost and all mines are revealed.
+	 * Does nothing once the game has finished.
+	 * @param row int representing the row to step on
+	 * @param col int representing the col to step on
+	 * @return GameState representing the state of the game after the step
+	 */
+	public GameState stepOnTile(int row, int col) {
+		if(state == GameState.PLAYING) {
+			start(row, col);
+			if(!minefield.stepOnTile(row, col)) {
+				minefield.revealAllMines();
+				state = GameState.LOST;
+			}
+			else {
+				checkForWin();
+			}
+		}
+		return state;
+	}
+
+	/**
+	 * Toggle whether a tile is marked. Does nothing once the game has finished.
+	 * @param row int representing the row to mark
+	 * @param col int representing the col to mark
+	 * @return GameState representing the state of the game after marking
+	 */
+	public GameState markTile(int row, int col) {
+		if(state == GameState.PLAYING) {
+			minefield.markTile(row, col);
+			checkForWin();
+		}
+		return state;
+	}
+
+	/*
+	 * If all mines are revealed, reveal the mines and set the game as won
+	 */
+	private void checkForWin() {
+		if(started && minefield.areAllMinesRevealed()) {
+			minefield.revealAllMines();
+			state = GameState.WON;
+		}
+	}
+
+	/**
+	 * Increment the time taken by a second while the game is being played
+	 */
+	public void incrementTime() {
+		if(state == GameState.PLAYING) {
+			time++;
+		}
+	}
+
+	/*
+	 * Getters and Setters
+	 */
+	public MineField getMinefield() { return minefield; }
+
+	public GameState getState() { return state; }
+
+	public boolean isPlaying() { return state == GameState.PLAYING; }
+
+	public int getTime() { return time; }
+
+	public long getSeed() { return seed; }
+
+	public boolean isStarted() { return started; }
+
+	public void setGenerator(BoardGenerator generator) { this.generator = generator; }
+}
@@ -0,0 +1,286 @@
+package model;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * GameRecording Class to record every step and mark of a game so it can be
+ * replayed by GameReplay. The minefield is not stored, only its dimensions,
+ * safe zone setting and seed, as the same seed and first step always give
+ * the same minefield.
+ *
+ * Each event is stored as two varints, the index of the tile shifted left
+ * by one with the action in the low bit, then the milliseconds since the
+ * previous event. Most events take three or four bytes.
+ *
+ * @author Daniel Newsom
+ * @version 3.0
+ *
+ */
+public class GameRecording {
+
+	/*
+	 * Actions stored in the low bit of each event
+	 */
+	public static final int STEP = 0;
+	public static final int MARK = 1;
+
+	private static final int MAGIC = 0x4D535252;
+	private static final byte VERSION = 1;
+	private static final int HEADER_SIZE = 4 + 1 + 1 + 1 + 4 + 4 + 4 + 8 + 4 + 4;
+
+	/*
+	 * Bits of the flags in the header
+	 */
+	private static final int SAFE_ZONE = 0x01;
+
+	private Level level;
+	private int rows;
+	private int cols;
+	private int mines;
+	private boolean safeZone;
+	private long seed;
+	private byte[] events;
+	private int length = 0;
+	private int eventCount = 0;
+
+	/**
+	 * Constructor for the GameRecording class to record a game
+	 * @param level Level representing the level the game is played at
+	 * @param minefield MineField representing the minefield of the game
+	 * @param seed long representing the seed the minefield is populated with
+	 */
+	public GameRecording(Level level, MineField minefield, long seed) {
+		this(level, minefield.getRows(), minefield.getCols(), minefield.getNumberOfMines(),
+				minefield.isSafeZone(), seed, new byte[64], 0, 0);
+	}
+
+	private GameRecording(Level level, int rows, int cols, int mines, boolean safeZone, long seed,
+			byte[] events, int length, int eventCount) {
+		this.level = level;
+		this.rows = rows;
+		this.cols = cols;
+		this.mines = mines;
+		this.safeZone = safeZone;
+		this.seed = seed;
+		this.events = events;
+		this.length = length;
+		this.eventCount = eventCount;
+	}
+
+	/**
+	 * Record a step or mark on a tile
+	 * @param index int representing the index of the tile
+	 * @param action int representing the action, STEP or MARK
+	 * @param deltaMillis long representing the milliseconds since the previous event
+	 */
+	public void record(int index, int action, long deltaMillis) {
+		// an event is at most two varints of ten bytes
+		if(length + 20 > events.length) {
+			events = Arrays.copyOf(events, events.length * 2);
+		}
+		writeVarint(((long) index << 1) | (action & 1));
+		writeVarint(Math.max(0, deltaMillis));
+		eventCount++;
+	}
+
+	/*
+	 * Write a value seven bits at a time, lowest bits first,
+	 * with the top bit of each byte set if more bytes follow
+	 */
+	private void writeVarint(long value) {
+		while ((value & ~0x7FL) != 0) {
+			events[length++] = (byte) ((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		events[length++] = (byte) value;
+	}
+
+	/**
+	 * Read a varint written by record
+	 * @param buffer ByteBuffer positioned at the start of the varint
+	 * @return long representing the value read
+	 */
+	static long readVarint(ByteBuffer buffer) {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			byte b = buffer.get();
+			value |= (long) (b & 0x7F) << shift;
+			if(b >= 0) {
+				return value;
+			}
+		}
+		throw new IllegalStateException("Varint is too long");
+	}
+
+	/**
+	 * Create the game the recording was made from, before any events are played
+	 * @return Game representing the new game
+	 */
+	public Game createGame() {
+		MineField minefield = new MineField(new int[] {rows, cols, mines});
+		minefield.setSafeZone(safeZone);
+		return new Game(minefield, seed);
+	}
+
+	/**
+	 * Write the recording to a buffer
+	 * @param buffer ByteBuffer with at least getSize() bytes remaining
+	 */
+	public void writeTo(ByteBuffer buffer) {
+		ByteOrder order = buffer.order();
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+		buffer.putInt(MAGIC);
+		buffer.put(VERSION);
+		buffer.put((byte) Level.getLevelIndex(level));
+		buffer.put((byte) (safeZone ? SAFE_ZONE : 0));
+		buffer.putInt(rows);
+		buffer.putInt(cols);
+		buffer.putInt(mines);
+		buffer.putLong(seed);
+		buffer.putInt(eventCount);
+		buffer.putInt(length);
+		buffer.put(events, 0, length);
+		buffer.order(order);
+	}
+
+	/**
+	 * Read a recording written by writeTo
+	 * @param buffer ByteBuffer positioned at the start of the recording
+	 * @return GameRecording representing the recording read
+	 * @throws IOException if the buffer does not hold a valid recording
+	 */
+	public static GameRecording readFrom(ByteBuffer buffer) throws IOException {
+		ByteOrder order = buffer.order();
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+		try {
+			if(buffer.getInt() != MAGIC) {
+				throw new IOException("Not a game recording");
+			}
+			byte version = buffer.get();
+			if(version != VERSION) {
+				throw new IOException("Unsupported recording version " + version);
+			}
+			int levelIndex = buffer.get();
+			int flags = buffer.get();
+			int rows = buffer.getInt();
+			int cols = buffer.getInt();
+			int mines = buffer.getInt();
+			long seed = buffer.getLong();
+			int eventCount = buffer.getInt();
+			int length = buffer.getInt();
+			if(levelIndex < 0 || levelIndex >= Level.values().length || rows < 0 || cols < 0
+					|| eventCount < 0 || length < 0 || length > buffer.remaining()) {
+				throw new IOException("Recording header is not valid");
+			}
+			byte[] events = new byte[Math.max(64, length)];
+			buffer.get(events, 0, length);
+			return new GameRecording(Level.values()[levelIndex], rows, cols, mines,
+					(flags & SAFE_ZONE) != 0, seed, events, length, eventCount);
+		} catch (BufferUnderflowException e) {
+			throw new IOException("Recording is too short");
+		} finally {
+			buffer.order(order);
+		}
+	}
+
+	/**
+	 * Write the recording to a file
+	 * @param path Path of the file to write
+	 * @throws IOException if the file cannot be written
+	 */
+	public void write(Path path) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(getSize());
+		writeTo(buffer);
+		buffer.flip();
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		}
+	}
+
+	/**
+	 * Read a recording from a file
+	 * @param path Path of the file to read
+	 * @return GameRecording representing the recording read
+	 * @throws IOException if the file cannot be read or is not a valid recording
+	 */
+	public static GameRecording read(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			if(channel.size() > Integer.MAX_VALUE) {
+				throw new IOException("Recording is too large");
+			}
+			ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+			while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+				// keep reading until the whole file is in the buffer
+			}
+			buffer.flip();
+			return readFrom(buffer);
+		}
+	}
+
+	/*
+	 * Getters and setters
+	 */
+
+	/**
+	 * Returns the number of bytes writeTo writes
+	 * @return int representing the size of the recording
+	 */
+	public int getSize() {
+		return HEADER_SIZE + length;
+	}
+
+	/**
+	 * Returns a buffer over the encoded events, positioned at the first event
+	 * @return ByteBuffer containing the events
+	 */
+	public ByteBuffer getEvents() {
+		return ByteBuffer.wrap(events, 0, length).asReadOnlyBuffer();
+	}
+
+	public int getEventCount() {
+		return eventCount;
+	}
+
+	public Level getLevel() {
+		return level;
+	}
+
+	public int getRows() {
+		return rows;
+	}
+
+	public int getCols() {
+		return cols;
+	}
+
+	public int getMines() {
+		return mines;
+	}
+
+	public boolean isSafeZone() {
+		return safeZone;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Set the seed the minefield was populated with, the seed of a game
+	 * that finds its seed with a generator is known after the first step
+	 * @param seed long representing the seed
+	 */
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+}
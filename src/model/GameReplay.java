@@ -0,0 +1,132 @@
+package model;
+
+import java.nio.ByteBuffer;
+
+/**
+ * GameReplay Class to play the events of a GameRecording against a new game.
+ * Events can be played one at a time, waiting getNextDelayMillis between
+ * them to replay in real time, or all at once as fast as possible.
+ *
+ * @author Daniel Newsom
+ * @version 3.0
+ *
+ */
+public class GameReplay {
+
+	private GameRecording recording;
+	private Game game;
+	private ByteBuffer events;
+	private int eventsPlayed = 0;
+	private long elapsedMillis = 0;
+
+	/*
+	 * The next event, read ahead so its delay is known before it is played
+	 */
+	private int nextIndex;
+	private int nextAction;
+	private long nextDelay;
+
+	/**
+	 * Constructor for the GameReplay class
+	 * @param recording GameRecording representing the recording to replay
+	 */
+	public GameReplay(GameRecording recording) {
+		this.recording = recording;
+		game = recording.createGame();
+		events = recording.getEvents();
+		readNext();
+	}
+
+	/**
+	 * Replay a recording as fast as possible
+	 * @param recording GameRecording representing the recording to replay
+	 * @return Game representing the game after every event has been played
+	 */
+	public static Game replay(GameRecording recording) {
+		GameReplay replay = new GameReplay(recording);
+		replay.playAll();
+		return replay.getGame();
+	}
+
+	/*
+	 * Read the next event from the recording if there is one
+	 */
+	private void readNext() {
+		if(hasNext()) {
+			long event = GameRecording.readVarint(events);
+			nextIndex = (int) (event >>> 1);
+			nextAction = (int) (event & 1);
+			nextDelay = GameRecording.readVarint(events);
+		}
+	}
+
+	/**
+	 * Checks if there are events left to play
+	 * @return boolean true if there is another event
+	 */
+	public boolean hasNext() {
+		return eventsPlayed < recording.getEventCount();
+	}
+
+	/**
+	 * Play the next event
+	 * @return GameState representing the state of the game after the event
+	 */
+	public GameState playNext() {
+		int cols = recording.getCols();
+		GameState state;
+		if(nextAction == GameRecording.MARK) {
+			state = game.markTile(nextIndex / cols, nextIndex % cols);
+		}
+		else {
+			state = game.stepOnTile(nextIndex / cols, nextIndex % cols);
+		}
+		eventsPlayed++;
+		elapsedMillis += nextDelay;
+		readNext();
+		return state;
+	}
+
+	/**
+	 * Play every event left without waiting between them
+	 * @return GameState representing the state of the game after the last event
+	 */
+	public GameState playAll() {
+		while (hasNext()) {
+			playNext();
+		}
+		return game.getState();
+	}
+
+	/*
+	 * Getters
+	 */
+
+	/**
+	 * Returns the time recorded between the previous event and the next event
+	 * @return long representing the delay in milliseconds
+	 */
+	public long getNextDelayMillis() {
+		return nextDelay;
+	}
+
+	public Game getGame() {
+		return game;
+	}
+
+	public GameRecording getRecording() {
+		return recording;
+	}
+
+	public int getEventsPlayed() {
+		return eventsPlayed;
+	}
+
+	/**
+	 * Returns the recorded time from the start of the game to the last event played
+	 * @return long representing the time in milliseconds
+	 */
+	public long getElapsedMillis() {
+		return elapsedMillis;
+	}
+}
@@ -0,0 +1,252 @@
+package model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * GameSnapshot Class to save a game in progress to a file and resume it later.
+ *
+ * The file starts with a header holding the format version, level, dimensions,
+ * seed, safe area and time taken. It is followed by three planes of one bit per
+ * tile, in index order, for the mined, revealed and marked flags. Each plane is
+ * packed into longs so a board is saved in about three bits per tile, and is
+ * written and read through a buffer with a file channel. From version 2 the
+ * planes are followed by the size of the game's recording and the recording,
+ * a size of 0 if it has none.
+ *
+ * @author Daniel Newsom
+ * @version 3.0
+ *
+ */
+public class GameSnapshot {
+
+	private static final int MAGIC = 0x4D535750;
+	private static final byte VERSION = 2;
+	private static final int HEADER_SIZE = 4 + 1 + 1 + 1 + 4 + 4 + 4 + 8 + 4 + 4 + 4;
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	/*
+	 * Bits of the flags in the header
+	 */
+	private static final int SAFE_ZONE = 0x01;
+
+	private Game game;
+	private Level level;
+	private GameRecording recording;
+
+	/**
+	 * Constructor for the GameSnapshot class
+	 * @param game Game representing the resumed game
+	 * @param level Level representing the level the game was played at
+	 * @param recording GameRecording of the game so far, or null if there is none
+	 */
+	private GameSnapshot(Game game, Level level, GameRecording recording) {
+		this.game = game;
+		this.level = level;
+		this.recording = recording;
+	}
+
+	/**
+	 * Save a game that has been started and is still being played.
+	 * The snapshot is written to a temporary file first and then moved over the
+	 * file, so a failed save never leaves a partly written snapshot behind.
+	 * @param path Path of the file to save to
+	 * @param game Game representing the game to save
+	 * @param level Level representing the level the game is played at
+	 * @param recording GameRecording of the game so far, or null if there is none
+	 * @throws IOException if the file cannot be written
+	 */
+	public static void save(Path path, Game game, Level level, GameRecording recording) throws IOException {
+		if(!game.isStarted() || !game.isPlaying()) {
+			throw new IllegalArgumentException("Only a game in progress can be saved");
+		}
+		MineField minefield = game.getMinefield();
+		MineBoard board = minefield.getBoard();
+		Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+
+		try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			buffer.putInt(MAGIC);
+			buffer.put(VERSION);
+			buffer.put((byte) Level.getLevelIndex(level));
+			buffer.put((byte) (minefield.isSafeZone() ? SAFE_ZONE : 0));
+			buffer.putInt(minefield.getRows());
+			buffer.putInt(minefield.getCols());
+			buffer.putInt(minefield.getNumberOfMines());
+			buffer.putLong(minefield.getSeed());
+			buffer.putInt(minefield.getSafeRow());
+			buffer.putInt(minefield.getSafeCol());
+			buffer.putInt(game.getTime());
+
+			int[] planes = {MineBoard.MINED, MineBoard.REVEALED, MineBoard.MARKED};
+			for (int flag : planes) {
+				for (int index = 0; index < board.getTotalTiles(); index += 64) {
+					long bits = 0;
+					int end = Math.min(64, board.getTotalTiles() - index);
+					for (int i = 0; i < end; i++) {
+						if((board.getState(index + i) & flag) != 0) {
+							bits |= 1L << i;
+						}
+					}
+					if(buffer.remaining() < 8) {
+						write(channel, buffer);
+					}
+					buffer.putLong(bits);
+				}
+			}
+			write(channel, buffer);
+
+			ByteBuffer recordingBuffer = ByteBuffer.allocate(4 + (recording == null ? 0 : recording.getSize()))
+					.order(ByteOrder.LITTLE_ENDIAN);
+			recordingBuffer.putInt(recording == null ? 0 : recording.getSize());
+			if(recording != null) {
+				recording.writeTo(recordingBuffer);
+			}
+			write(channel, recordingBuffer);
+			channel.force(false);
+		}
+		Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/*
+	 * Write everything in the buffer to the channel and clear it
+	 */
+	private static void write(FileChannel channel, ByteBuffer buffer) throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	/**
+	 * Load a saved game
+	 * @param path Path of the file to load from
+	 * @return GameSnapshot holding the resumed game and its level
+	 * @throws IOException if the file cannot be read or is not a valid snapshot
+	 */
+	public static GameSnapshot load(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			read(channel, buffer, HEADER_SIZE);
+			if(buffer.getInt() != MAGIC) {
+				throw new IOException("Not a saved game");
+			}
+			byte version = buffer.get();
+			if(version < 1 || version > VERSION) {
+				throw new IOException("Unsupported saved game version " + version);
+			}
+			int levelIndex = buffer.get();
+			int flags = buffer.get();
+			int rows = buffer.getInt();
+			int cols = buffer.getInt();
+			int mines = buffer.getInt();
+			long seed = buffer.getLong();
+			int safeRow = buffer.getInt();
+			int safeCol = buffer.getInt();
+			int time = buffer.getInt();
+			if(levelIndex < 0 || levelIndex >= Level.values().length || rows <= 0 || cols <= 0
+					|| (long) rows * cols > MineBoard.MAX_TILES || mines < 0 || time < 0) {
+				throw new IOException("Saved game header is not valid");
+			}
+			long planesEnd = HEADER_SIZE + 3L * 8 * (((long) rows * cols + 63) / 64);
+			if(version == 1 ? channel.size() != planesEnd : channel.size() < planesEnd + 4) {
+				throw new IOException("Saved game is the wrong size");
+			}
+
+			MineField minefield = new MineField(new int[] {rows, cols, mines});
+			minefield.setSafeZone((flags & SAFE_ZONE) != 0);
+			int totalTiles = minefield.getTotalTiles();
+
+			// place the mines, then restore the revealed and marked tiles
+			for (int plane = 0; plane < 3; plane++) {
+				for (int index = 0; index < totalTiles; index += 64) {
+					if(buffer.remaining() < 8) {
+						buffer.compact();
+						read(channel, buffer, 8);
+					}
+					long bits = buffer.getLong();
+					for (; bits != 0; bits &= bits - 1) {
+						int tile = index + Long.numberOfTrailingZeros(bits);
+						if(tile >= totalTiles) {
+							throw new IOException("Saved game has a tile outside the minefield");
+						}
+						if(plane == 0) {
+							if(minefield.getMinesPlaced() >= mines) {
+								throw new IOException("Saved game has too many mines");
+							}
+							minefield.restoreMine(tile);
+						}
+						else {
+							minefield.restoreTile(tile, plane == 1, plane == 2);
+						}
+					}
+				}
+				if(plane == 0) {
+					minefield.restorePopulated(seed, safeRow, safeCol);
+				}
+			}
+			GameRecording recording = version == 1 ? null : readRecording(channel, planesEnd);
+			return new GameSnapshot(new Game(minefield, time), Level.values()[levelIndex], recording);
+		}
+	}
+
+	/*
+	 * Read the recording that follows the planes, null if the game has no recording
+	 */
+	private static GameRecording readRecording(FileChannel channel, long position) throws IOException {
+		long size = channel.size() - position - 4;
+		if(size == 0) {
+			return null;
+		}
+		if(size > Integer.MAX_VALUE) {
+			throw new IOException("Saved game recording is too large");
+		}
+		ByteBuffer buffer = ByteBuffer.allocate(4 + (int) size).order(ByteOrder.LITTLE_ENDIAN);
+		while (buffer.hasRemaining()) {
+			if(channel.read(buffer, position + buffer.position()) < 0) {
+				throw new IOException("Saved game is too short");
+			}
+		}
+		buffer.flip();
+		if(buffer.getInt() != size) {
+			throw new IOException("Saved game recording is the wrong size");
+		}
+		return GameRecording.readFrom(buffer);
+	}
+
+	/*
+	 * Read from the channel until the buffer holds at least the given number of bytes,
+	 * reading as much as fits, and flip it ready to be read
+	 */
+	private static void read(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+		while (buffer.position() < bytes) {
+			if(channel.read(buffer) < 0) {
+				throw new IOException("Saved game is too short");
+			}
+		}
+		buffer.flip();
+	}
+
+	/*
+	 * Getters
+	 */
+	public Game getGame() {
+		return game;
+	}
+
+	public Level getLevel() {
+		return level;
+	}
+
+	public GameRecording getRecording() {
+		return recording;
+	}
+}
@@ -0,0 +1,14 @@
+package model;
+
+/**
+ * GameState Enum to represent whether a game is still being played, won or lost
+ * 
+ * @author Daniel Newsom
+ * @version 3.0
+ *
+ */
+public enum GameState {
+	PLAYING, 
+	WON, 
+	LOST;
+}
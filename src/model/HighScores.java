@@ -1,40 +1,20 @@
 package model;
 
 import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
-import java.util.NoSuchElementException;
-import java.util.Optional;
-
-import application.Main;
-import application.MineSweeper;
-import gui.Images;
-import javafx.geometry.Insets;
-import javafx.geometry.Pos;
-import javafx.scene.Scene;
-import javafx.scene.control.Alert;
-import javafx.scene.control.Alert.AlertType;
-import javafx.scene.control.Button;
-import javafx.scene.control.ButtonType;
-import javafx.scene.control.Label;
-import javafx.scene.control.TextInputDialog;
-import javafx.scene.image.Image;
-import javafx.scene.layout.BorderPane;
-import javafx.scene.layout.HBox;
-import javafx.scene.layout.StackPane;
-import javafx.scene.layout.TilePane;
-import javafx.scene.layout.VBox;
-import javafx.scene.text.Font;
-import javafx.scene.text.FontWeight;
-import javafx.scene.text.TextAlignment;
-import javafx.stage.Stage;
+import java.util.Map;
 
 /**
  * Abstract HighScores Class to hold and process high scores for the minesweeper game
@@ -44,413 +24,415 @@ import javafx.stage.Stage;
  */
 public abstract class HighScores implements Comparator<Score> {
 
-	private static List<ArrayList<Score>> highScores;
+	/*
+	 * The number of scores shown for each level and the score shown
+	 * in their place until that many have been set
+	 */
+	public static final int TOP_SCORES = 5;
+	private static final String DEFAULT_NAME = "Player";
+	private static final int DEFAULT_TIME = 59999;
+
+	private static ScoreHistory[] histories;
+	private static Map<String, ScoreHistory> customHistories;
+	private static TimeSketch[] statistics;
 	private static final File settingsFile = new File("settings.txt");
+	private static final Path journalFile = Paths.get("scores.journal");
+	private static ScoreJournal journal;
+	private static Level journaledLevel;
+	private static int[] journaledCustom;
 //	private static final File resetFile = new File("reset.txt");
 
 	/**
-	 * Import highscores and settings from file and populate highscores lists
-	 * as well as set level and custom parameters from file
+	 * Import highscores and settings by replaying the score journal. If there is no
+	 * journal yet the highscores and settings are read from the old settings file
+	 * if there is one, and written to a new journal.
 	 */
 	public static void importSettingsFromFile() {
-
-		//Initialise lists
-		highScores = new ArrayList<ArrayList<Score>>() ;
-		for (int i = 0; i < 7; i++) {
-			highScores.add(new ArrayList<Score>());
+		clearHistories();
+		journal = new ScoreJournal(journalFile);
+		try {
+			boolean replayed = journal.replay();
+			if(!replayed && settingsFile.exists()) {
+				importLegacySettings();
+			}
+			if(!replayed) {
+				journal.compact(getHistories(), statistics, Level.getLevel(), Level.getLevelArray(Level.CUSTOM));
+			}
 		}
-		try  
-		{  
-			/*
-			 * Try to read from text file and populate highscore lists 
-			 */
-			FileReader fr = new FileReader(settingsFile);
-			BufferedReader br=new BufferedReader(fr);
-			ArrayList<Score> currentList = new ArrayList<Score>();
-
-			for (int i = 0; i < highScores.size(); i++) {
-				currentList = highScores.get(i);
-				/*
-				 * If importing custom levels populate list 
-				 * with CustomScore objects
-				 */
-				if(i == 6) {
-					for (int j = 0; j < 5; j++) {
-						String[] score = br.readLine().split(":");
-						String[] details = score[2].split(",");
-						int rows = Integer.parseInt(details[0]);
-						int cols = Integer.parseInt(details[1]);
-						int mines = Integer.parseInt(details[2]);
-
-						currentList.add(new CustomScore(score[0], Integer.parseInt(score[1]),new int[] {rows,cols,mines}));
+		catch(IOException e) {
+			// keep scores in memory only if the journal cannot be used
+			e.printStackTrace();
+			journal = null;
+		}
+		journaledLevel = Level.getLevel();
+		journaledCustom = Level.getLevelArray(Level.CUSTOM).clone();
+	}
+
+	/*
+	 * Read highscores and settings from the text file used before the journal,
+	 * a file that is not valid is ignored
+	 */
+	private static void importLegacySettings() {
+		List<List<Score>> imported = new ArrayList<List<Score>>();
+		try (BufferedReader br = new BufferedReader(new FileReader(settingsFile))) {
+			for (int i = 0; i < Level.values().length; i++) {
+				imported.add(new ArrayList<Score>());
+				for (int j = 0; j < 5; j++) {
+					String[] score = readLegacyFields(br, ":", 2);
+					if(i == Level.getLevelIndex(Level.CUSTOM)) {
+						String[] details = score.length > 2 ? score[2].split(",") : new String[0];
+						if(details.length != 3) {
+							throw new IOException("Custom score has no level details");
+						}
+						int[] levelDetails = {Integer.parseInt(details[0]), Integer.parseInt(details[1]),
+								Integer.parseInt(details[2])};
+						CustomScore customScore = new CustomScore(score[0], Integer.parseInt(score[1]), levelDetails);
+						readRecording(customScore, Level.CUSTOM, score, 3);
+						imported.get(i).add(customScore);
 					}
-				}
-				/*
-				 * If not importing custom level populate list with Score objects
-				 */
-				else {
-					for (int j = 0; j < 5; j++) {
-						String[] score = br.readLine().split(":");
-						currentList.add(new Score(score[0], Integer.parseInt(score[1])));
+					else {
+						Score levelScore = new Score(score[0], Integer.parseInt(score[1]));
+						readRecording(levelScore, Level.values()[i], score, 2);
+						imported.get(i).add(levelScore);
 					}
-
-				} 
+				}
 			}
-			/**
-			 * Read and set the current level and custom parameters from the file
-			 */
-			Level.setLevel(br.readLine());
+			String levelDescription = br.readLine();
+			String[] customString = readLegacyFields(br, ",", 3);
 			int[] custom = new int[3];
-			String[] customString = br.readLine().split(",");
-			for (int i = 0; i < customString.length; i++) {
+			for (int i = 0; i < custom.length; i++) {
 				custom[i] = Integer.parseInt(customString[i]);
 			}
-			Level.setCustomArray(custom);
-			br.close();
-		}  
-		/**
-		 * If file is not valid use reset file.
-		 */
-		catch(IOException e)  
-		{  
-			resetSettings();
+			for (int i = 0; i < imported.size(); i++) {
+				for (Score score : imported.get(i)) {
+					if(!isDefaultScore(score)) {
+						addToHistory(Level.values()[i], score);
+					}
+				}
+			}
+			Level.setLevel(levelDescription);
+			if(Level.validateCustomArray(custom[0], custom[1], custom[2]) == null) {
+				Level.setCustomArray(custom);
+			}
 		}
-		catch(NullPointerException e) {
-			resetSettings();
+		catch(IOException | NumberFormatException e) {
+			// start from the default scores and settings
+		}
+	}
+
+	/*
+	 * Read a line of the old settings file and split it into at least the given number of fields
+	 */
+	private static String[] readLegacyFields(BufferedReader br, String separator, int fields) throws IOException {
+		String line = br.readLine();
+		if(line == null) {
+			throw new IOException("Settings file is too short");
 		}
-		catch(ArrayIndexOutOfBoundsException e) {
-			resetSettings();
+		String[] split = line.split(separator);
+		if(split.length < fields) {
+			throw new IOException("Settings file line is not valid: " + line);
 		}
+		return split;
+	}
 
-	}  
+	/**
+	 * Record the current level and custom level parameters in the journal
+	 * if they have changed since they were last recorded
+	 */
+	public static void saveSettings() {
+		int[] custom = Level.getLevelArray(Level.CUSTOM);
+		if(journal == null || (Level.getLevel() == journaledLevel && Arrays.equals(custom, journaledCustom))) {
+			return;
+		}
+		try {
+			journal.appendSettings(Level.getLevel(), custom);
+			journaledLevel = Level.getLevel();
+			journaledCustom = custom.clone();
+			compactIfDue();
+		}
+		catch(IOException e) {
+			e.printStackTrace();
+		}
+	}
 
 	/**
-	 * Writes all highscores and settings to a text file
+	 * Record the settings in the journal and close it, the scores are
+	 * already in the journal as they are recorded when they are set
 	 */
 	public static void exportSettingsToFile() {
-		try  
-		{  
-			FileOutputStream fos = new FileOutputStream(settingsFile);   
-			BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(fos));  
-
-			for (int i = 0; i < highScores.size(); i++) {
-				ArrayList<Score> currentList = highScores.get(i);
-				if(i == 6) {
-					for(int j = 0; j < currentList.size(); j++){
-						CustomScore currentItem = (CustomScore) currentList.get(j);
-						int[] levelDetails = currentItem.getLevelDetails();
-						bw.write(currentItem.getName() + ":" + currentItem.getTime() + ":"
-								+ levelDetails[0] + "," + levelDetails[1] + "," + levelDetails[2]);
-						bw.newLine();
-					}
-				}
-				else {
-					for(int j = 0; j < currentList.size(); j++){
-						Score currentItem = currentList.get(j);
-						bw.write(currentItem.getName() + ":" + currentItem.getTime());
-						bw.newLine();
-					}
-				}
-			}
-			bw.write(Level.getLevel().getDescriptionName());
-			bw.newLine();
-			int[] custom = Level.getLevelArray(Level.CUSTOM);
-			bw.write(String.format("%d,%d,%d", custom[0], custom[1], custom[2]));
-			bw.close();
+		if(journal == null) {
+			return;
+		}
+		saveSettings();
+		try {
+			journal.close();
 		}
-		catch(IOException e)  
-		{  
-			e.printStackTrace();  
+		catch(IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/*
+	 * Compact the journal once enough changes have been appended to it
+	 */
+	private static void compactIfDue() throws IOException {
+		if(journal.isCompactDue()) {
+			journal.compact(getHistories(), statistics, journaledLevel, journaledCustom);
 		}
 	}
 
 	/*
-	 * return the last score from the highscores for current level
+	 * Read the recording of a score stored after the other fields of its line
+	 * in the old settings file and verify the score again
 	 */
-	private static int getLastScore(Level level) {
-		return highScores.get(Level.getLevelIndex(level)).get(4).getTime();
+	private static void readRecording(Score score, Level level, String[] fields, int field) {
+		if(fields.length <= field) {
+			return;
+		}
+		try {
+			GameRecording recording = GameRecording.readFrom(ByteBuffer.wrap(Base64.getDecoder().decode(fields[field])));
+			score.setRecording(recording);
+			score.setVerified(ScoreVerifier.verify(getLevelArray(score, level), level, score.getTime(), recording));
+		}
+		catch(IOException | IllegalArgumentException e) {
+			// a recording that cannot be read leaves the score unverified
+		}
+	}
+
+	/*
+	 * Return the rows, columns and mines of the level a score was set on
+	 */
+	private static int[] getLevelArray(Score score, Level level) {
+		if(score instanceof CustomScore) {
+			return ((CustomScore) score).getLevelDetails();
+		}
+		return Level.getLevelArray(level);
+	}
+
+	/**
+	 * Check whether a time would be added to the high scores for a level
+	 * @param level level to check
+	 * @param time int representing the time to check
+	 * @return boolean true if the time is a new high score
+	 */
+	public static boolean isHighScore(Level level, int time) {
+		List<Score> top = getTopScores(level, TOP_SCORES);
+		return time < (top.size() < TOP_SCORES ? DEFAULT_TIME : top.get(TOP_SCORES - 1).getTime());
 	}
 
 	/**
-	 * Add a score to high scores
+	 * Add a score to the history of a level. The score is verified by replaying
+	 * its recording first and is only added if it is verified.
 	 * @param level level to add score to
 	 * @param time int representing time to add
-	 * @return boolean true if highscore added, false otherwise
+	 * @param name String representing the name of the scorer
+	 * @param recording GameRecording of the game the score was set in
+	 * @return boolean true if the score was added, false if it has no recording or was not verified
 	 */
-	public static boolean addScore(Level level, int time) {
-		boolean added = false;
-		String name = "Player";
-		/*
-		 * If time is < the last entry on the highscores list for level
-		 */
-		if(time < getLastScore(level)) {
-
-			/*
-			 * Display dialog requesting name
-			 */
-			TextInputDialog dialog = new TextInputDialog();
-			dialog.setTitle("New high score!");
-			dialog.setHeaderText("Congratulations you have set a high score!");
-			dialog.setContentText("Please enter your name:\n(Max 25 characters)");
-			dialog.initOwner(Main.getStage());
-			Optional<String> result = dialog.showAndWait();
-			/*
-			 * Check and adjust name input as required
-			 */
-			if (result.isPresent() && result.get().length() <= 25){
-				name = result.get();
-				if(name.length() == 0) {
-					name = "Player";
-				}
-			}
-			else {
-				try {
-					name = result.get();
-				} catch (NoSuchElementException e) {} // if Cancel clicked leave name as player
-				if(name.length() >= 25) {
-					name = name.substring(0,25);
-				}
-			}
+	public static boolean addScore(Level level, int time, String name, GameRecording recording) {
+		boolean verified = ScoreVerifier.verify(Level.getLevelArray(level), level, time, recording);
+		if(!verified) {
+			return false;
 		}
-		/*
-		 * Add Score to the corresponding list by adding,
-		 * then sorting the list, then removing last item
-		 */
-		ArrayList<Score> levelList = highScores.get(Level.getLevelIndex(level));
 		Score score;
 		if(level.equals(Level.CUSTOM)) {
-			score = new CustomScore(name, time, Level.getLevelArray(level));
-			levelList.add(score);
-			score.sortList(levelList);
-			levelList.remove(5);
-			added = true;
+			score = new CustomScore(name, time, Level.getLevelArray(level).clone());
 		}
 		else {
 			score = new Score(name, time);
-			levelList.add(score);
-			score.sortList(levelList);
-			levelList.remove(5);
-			added = true;
 		}
-		displayLevelScores(Level.getLevel());
-		return added;
-	}
+		score.setRecording(recording);
+		score.setVerified(verified);
+		addToHistory(level, score);
 
+		/*
+		 * Record the score in the journal so it is kept from now on
+		 */
+		if(journal != null) {
+			try {
+				journal.appendScore(level, score);
+				compactIfDue();
+			}
+			catch(IOException e) {
+				e.printStackTrace();
+			}
+		}
+		return true;
+	}
 
-	/**
-	 * Create and display popup window showing
-	 * high scores for the given level
-	 * @param level level to show scores for
+	/*
+	 * Add a score read from the journal. The verified status is never read from the
+	 * journal, the score is verified again from its recording when it is first ranked.
+	 * A score without a recording is kept in the history but never ranked.
+	 * Default scores written by older journals are left out.
 	 */
-	public static void displayLevelScores(Level level) {
-		MineSweeper.pauseTimer();
-
-		final Stage dialog = new Stage();
-
-		dialog.setTitle("High Scores");
-		dialog.getIcons().add(new Image(Images.ICON.getImage()));
-		dialog.setResizable(false);
-
-		BorderPane rootPane = new BorderPane();
-		VBox mainPane = createScorePane(level, 25, 25);
-		BorderPane buttonPane = new BorderPane();
-		buttonPane.setPadding(new Insets(20));
-
-
-		Button okButton = new Button("OK");
-		okButton.setOnMouseClicked(e->{dialog.close();});
-		okButton.setMinWidth(75);
-		okButton.setFont(Font.font(15));
-		buttonPane.setRight(okButton);
+	static void restoreScore(Level level, Score score) {
+		if(isDefaultScore(score)) {
+			return;
+		}
+		score.setVerifyPending(score.getRecording() != null);
+		addToHistory(level, score);
+	}
 
-		rootPane.setCenter(mainPane);
-		rootPane.setBottom(buttonPane);
+	/*
+	 * Replace the time statistics of a level with those read from the journal
+	 */
+	static void restoreStatistics(Level level, TimeSketch sketch) {
+		statistics[Level.getLevelIndex(level)] = sketch;
+	}
 
-		Scene dialogScene = new Scene(rootPane);
-		dialog.setScene(dialogScene);
-		dialog.showAndWait();     
-		MineSweeper.playTimer();
+	/*
+	 * Check whether a score is the default score shown until enough scores have been set
+	 */
+	private static boolean isDefaultScore(Score score) {
+		return score.getName().equals(DEFAULT_NAME) && score.getTime() == DEFAULT_TIME;
 	}
 
-	/**
-	 * Displays popup to show highscores for all levels
+	/*
+	 * Add a score to the history of its level, and of its dimensions if it is a custom score,
+	 * and add its time to the statistics of its level
 	 */
-	public static void displayAllScores() {
-
-		MineSweeper.pauseTimer();
-
-		final Stage dialog = new Stage();
-		dialog.setTitle("High Scores");
-		dialog.setResizable(false);
-		dialog.getIcons().add(new Image(Images.ICON.getImage()));
-		BorderPane rootPane = new BorderPane();
-		StackPane titlePane = new StackPane();
-		BorderPane scorePane = new BorderPane();
-		TilePane levelsPane = new TilePane();
-		levelsPane.setPrefColumns(3);
-		StackPane customPane = new StackPane();
-		BorderPane buttonPane = new BorderPane();
-		buttonPane.setPadding(new Insets(20));
-
-		Label titleLabel = new Label("HIGH SCORES" + "\n\n");
-		titleLabel.setFont(Font.font(null, FontWeight.EXTRA_BOLD, 40));
-		titlePane.getChildren().add(titleLabel);
-
-		for(int i = 0; i < Level.values().length -1; i++) {
-			levelsPane.getChildren().add(createScorePane(Level.values()[i], 15, 15));
+	private static void addToHistory(Level level, Score score) {
+		histories[Level.getLevelIndex(level)].add(score);
+		statistics[Level.getLevelIndex(level)].add(score.getTime());
+		if(score instanceof CustomScore) {
+			String key = getCustomKey(((CustomScore) score).getLevelDetails());
+			ScoreHistory history = customHistories.get(key);
+			if(history == null) {
+				history = new ScoreHistory();
+				customHistories.put(key, history);
+			}
+			history.add(score);
 		}
-
-		customPane.getChildren().add(createScorePane(Level.CUSTOM, 15, 15));
-		scorePane.setCenter(levelsPane);
-		scorePane.setBottom(customPane);
-
-		Button okButton = new Button("OK");
-		okButton.setOnMouseClicked(e->{dialog.close();});
-		okButton.setMinWidth(75);
-		okButton.setFont(Font.font(15));
-		buttonPane.setRight(okButton);
-
-		rootPane.setTop(titlePane);
-		rootPane.setCenter(scorePane);
-		rootPane.setBottom(buttonPane);
-
-		Scene dialogScene = new Scene(rootPane);
-		dialog.setScene(dialogScene);
-		dialog.showAndWait();     
-
-		MineSweeper.playTimer();
 	}
 
 	/*
-	 * Creates a pane displaying the scores for a given level using
-	 * font and padding value input.
+	 * Check whether a score can be ranked, verifying a score read
+	 * from the journal the first time it is checked
 	 */
-	private static VBox createScorePane(Level level, int fontSize, int padding) {
-
-		VBox mainPane = new VBox();
-		mainPane.setAlignment(Pos.CENTER);
-		HBox scorePane = new HBox();
-		scorePane.setAlignment(Pos.CENTER);
-		scorePane.setPadding(new Insets(padding));
-		Label levelLabel = new Label("\n" + level.getDescriptionName().toUpperCase() + "\n" + level.getLevelParameters() + "\n");
-		levelLabel.setFont(Font.font(null, FontWeight.EXTRA_BOLD, fontSize));
-		levelLabel.setTextAlignment(TextAlignment.CENTER);
-
-		Label namesLabel = new Label(getHighScoreNames(level));
-		namesLabel.setFont(Font.font(null, FontWeight.BOLD, fontSize));
-		namesLabel.setPadding(new Insets(padding));
-		scorePane.getChildren().add(namesLabel);
-
-		Label scoresLabel = new Label(getHighScores(level));
-		scoresLabel.setFont(new Font(fontSize));
-		scoresLabel.setPadding(new Insets(padding));
-		scoresLabel.setTextAlignment(TextAlignment.LEFT);
-		scorePane.getChildren().add(scoresLabel);
-
-		if(level.equals(Level.CUSTOM)) {
-			Label levelDetailsLabel = new Label(getHighScoreDetails(level));
-			levelDetailsLabel.setFont(Font.font(null, FontWeight.BOLD, fontSize));
-			levelDetailsLabel.setPadding(new Insets(padding));
-			levelDetailsLabel.setTextAlignment(TextAlignment.LEFT);
-			scorePane.getChildren().add(levelDetailsLabel);
+	private static boolean isRanked(Level level, Score score) {
+		if(score.isVerifyPending()) {
+			score.setVerified(ScoreVerifier.verify(getLevelArray(score, level), level, score.getTime(), score.getRecording()));
+			score.setVerifyPending(false);
+		}
+		return score.isVerified();
+	}
 
-			levelLabel.setText("\n" + level.getDescriptionName().toUpperCase() + "\n");
+	/**
+	 * Return the high scores for a level, fastest first. Until enough scores have
+	 * been set the list is filled to TOP_SCORES with default scores.
+	 * @param level level to return the scores for
+	 * @return List of the scores for the level
+	 */
+	public static List<Score> getScores(Level level) {
+		List<Score> scores = getTopScores(level, TOP_SCORES);
+		while (scores.size() < TOP_SCORES) {
+			scores.add(level == Level.CUSTOM ? new CustomScore(DEFAULT_NAME, DEFAULT_TIME, new int[] {10,10,10})
+					: new Score(DEFAULT_NAME, DEFAULT_TIME));
 		}
+		return Collections.unmodifiableList(scores);
+	}
 
-		mainPane.getChildren().addAll(levelLabel, scorePane);
+	/**
+	 * Return the best verified scores set on a level, fastest first.
+	 * Scores that are not verified are kept in the history but not returned.
+	 * @param level level to return the scores for
+	 * @param n int representing the most scores to return
+	 * @return List of up to n scores
+	 */
+	public static List<Score> getTopScores(Level level, int n) {
+		return getHistory(level).getTop(n, score->{return isRanked(level, score);});
+	}
 
-		return mainPane;
+	/**
+	 * Return the best verified scores set on custom levels of the given size, fastest first
+	 * @param levelDetails int[] representing number of rows, columns and mines
+	 * @param n int representing the most scores to return
+	 * @return List of up to n scores
+	 */
+	public static List<Score> getCustomScores(int[] levelDetails, int n) {
+		ScoreHistory history = customHistories.get(getCustomKey(levelDetails));
+		return history == null ? new ArrayList<Score>()
+				: history.getTop(n, score->{return isRanked(Level.CUSTOM, score);});
+	}
 
+	/**
+	 * Return every score set on a level
+	 * @param level level to return the history for
+	 * @return ScoreHistory holding the scores in the order they were set
+	 */
+	public static ScoreHistory getHistory(Level level) {
+		return histories[Level.getLevelIndex(level)];
 	}
 
-	/*
-	 * Create string showing the highscore names for creating the score pane
+	/**
+	 * Return the time statistics of a level, built up as each score is added
+	 * @param level level to return the statistics for
+	 * @return TimeSketch holding the statistics
 	 */
-	private static String getHighScoreNames(Level level) {
-		ArrayList<Score> scores = highScores.get(Level.getLevelIndex(level));
-		String outputString = "";
-		for (Score score : scores) {
-			outputString += score.getName() + "\n";
+	public static TimeSketch getStatistics(Level level) {
+		return statistics[Level.getLevelIndex(level)];
+	}
+
+	/**
+	 * Return the time statistics of every level combined
+	 * @return TimeSketch holding the statistics
+	 */
+	public static TimeSketch getAllStatistics() {
+		TimeSketch all = new TimeSketch();
+		for (TimeSketch sketch : statistics) {
+			all.merge(sketch);
 		}
-		return outputString;
+		return all;
 	}
 
 	/*
-	 * Create string showing the highscores for creating the score pane
+	 * Return the histories of every level in level index order
 	 */
-	private static String getHighScores(Level level) {
-		ArrayList<Score> scores = highScores.get(Level.getLevelIndex(level));
-		String outputString = "";
-		for (Score score : scores) {
-			outputString += MineSweeper.getTimeAsString(score.getTime()) + "\n";
+	private static List<List<Score>> getHistories() {
+		List<List<Score>> lists = new ArrayList<List<Score>>();
+		for (ScoreHistory history : histories) {
+			lists.add(history.getHistory());
 		}
-		return outputString;
+		return lists;
 	}
 
 	/*
-	 * Create string showing the highscore level details for creating the 
-	 * score pane for custom level
+	 * Return the key of the custom history for the given rows, columns and mines
 	 */
-	private static String getHighScoreDetails(Level level) {
-		ArrayList<Score> scores = highScores.get(Level.getLevelIndex(level));
-		String outputString = "";
-		for (Score score : scores) {
-			CustomScore customScore = (CustomScore)score;
-			outputString += customScore.getlevelDetailsString() + "\n";
-		}
-		return outputString;
+	private static String getCustomKey(int[] levelDetails) {
+		return levelDetails[0] + "," + levelDetails[1] + "," + levelDetails[2];
 	}
 
 	/**
-	 * Display confirmation to reset highscores
+	 * Reset all scores, clearing the history and statistics of every level
 	 */
-	public static void resetHighScoresConfirm() {
-		MineSweeper.pauseTimer();
-		Alert alert = new Alert(AlertType.CONFIRMATION);
-		alert.initOwner(Main.getStage());
-		alert.setTitle("Confirm");
-		alert.setHeaderText("Reset highScores");
-		alert.setContentText("Are you sure?");
-
-		Optional<ButtonType> result = alert.showAndWait();
-		if (result.get() == ButtonType.OK){
-			resetSettings();
+	public static void resetSettings() {
+		clearHistories();
+		if(journal != null && journaledLevel != null) {
+			try {
+				journal.compact(getHistories(), statistics, journaledLevel, journaledCustom);
+			}
+			catch(IOException e) {
+				e.printStackTrace();
+			}
 		}
-		MineSweeper.playTimer();
 	}
-	
+
 	/*
-	 * Reset all scores to default
+	 * Create an empty history and statistics for each level
 	 */
-	private static void resetSettings() {
-		//Initialise lists
-		highScores = new ArrayList<ArrayList<Score>>() ;
-		for (int i = 0; i < 7; i++) {
-			highScores.add(new ArrayList<Score>());
+	private static void clearHistories() {
+		histories = new ScoreHistory[Level.values().length];
+		for (int i = 0; i < histories.length; i++) {
+			histories[i] = new ScoreHistory();
 		}
-		ArrayList<Score> currentList = new ArrayList<Score>();
-		for (int i = 0; i < highScores.size(); i++) {
-			currentList = highScores.get(i);
-			/*
-			 * If setting custom levels populate list 
-			 * with CustomScore objects
-			 */
-			if(i == 6) {
-				for (int j = 0; j < 5; j++) {
-					currentList.add(new CustomScore("Player", 59999, new int[] {10,10,10}));
-				}
-			}
-			/*
-			 * If not setting custom level populate list with Score objects
-			 */
-			else {
-				for (int j = 0; j < 5; j++) {
-					currentList.add(new Score("Player", 59999));
-				}
-
-			} 
+		customHistories = new HashMap<String, ScoreHistory>();
+		statistics = new TimeSketch[Level.values().length];
+		for (int i = 0; i < statistics.length; i++) {
+			statistics[i] = new TimeSketch();
 		}
-	}  
+	}
 
 	/*
 	 * Getters and setters
@@ -458,6 +440,10 @@ public abstract class HighScores implements Comparator<Score> {
 	public static File getSettingsFile() {
 		return settingsFile;
 	}
+
+	public static Path getJournalFile() {
+		return journalFile;
+	}
 //
 //	public static File getScoresresettextfile() {
 //		return resetFile;
@@ -0,0 +1,368 @@
+package model;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * MineBoard Class to store the state of every tile in a minefield.
+ * Each tile is packed into a single byte, the low four bits hold the
+ * number of mined neighbours and the upper bits hold the mined, revealed,
+ * marked and changed flags. Tiles are stored row by row in one array.
+ *
+ * Boards with more than OFF_HEAP_TILES tiles are stored off the heap in
+ * direct buffers instead, so boards of hundreds of millions of tiles do
+ * not need a single huge array on the heap. Such boards are also populated
+ * by placing every mine and then counting the neighbours of every tile in
+ * one pass along the rows, see countNeighbours.
+ *
+ * Only the model package changes a board, so the tile counts MineField
+ * keeps always match the board.
+ *
+ * @author Daniel Newsom
+ * @version 3.0
+ *
+ */
+public class MineBoard
+{
+	/*
+	 * Bit masks for the packed tile state
+	 */
+	public static final int NEIGHBOURS = 0x0F;
+	public static final int MINED = 0x10;
+	public static final int REVEALED = 0x20;
+	public static final int MARKED = 0x40;
+	public static final int CHANGED = 0x80;
+
+	/*
+	 * Boards larger than this are stored off the heap in buffers of CHUNK_SIZE bytes
+	 */
+	public static final int OFF_HEAP_TILES = 1 << 24;
+	private static final int CHUNK_SHIFT = 26;
+	private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+	private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+	/*
+	 * The largest board that can be indexed with an int
+	 */
+	public static final int MAX_TILES = Integer.MAX_VALUE - 8;
+
+	private final byte[] tiles;
+	private final ByteBuffer[] chunks;
+	private final int rows;
+	private final int cols;
+	private final int totalTiles;
+
+	/**
+	 * Constructor for the MineBoard Class
+	 * @param rows int representing the number of rows
+	 * @param cols int representing the number of columns
+	 */
+	public MineBoard(int rows, int cols)
+	{
+		// if either dimension is not positive create an empty board
+		if (rows <= 0 || cols <= 0)
+		{
+			this.rows = 0;
+			this.cols = 0;
+		}
+		else if ((long) rows * cols > MAX_TILES)
+		{
+			throw new IllegalArgumentException("A board of " + rows + " x " + cols + " tiles is too large");
+		}
+		else
+		{
+			this.rows = rows;
+			this.cols = cols;
+		}
+		totalTiles = this.rows * this.cols;
+		if (totalTiles > OFF_HEAP_TILES)
+		{
+			// allocateDirect fills each buffer with zeros like a new array
+			tiles = null;
+			chunks = new ByteBuffer[(totalTiles + CHUNK_MASK) >>> CHUNK_SHIFT];
+			for (int i = 0; i < chunks.length; i++)
+			{
+				chunks[i] = ByteBuffer.allocateDirect(Math.min(CHUNK_SIZE, totalTiles - (i << CHUNK_SHIFT)));
+			}
+		}
+		else
+		{
+			tiles = new byte[totalTiles];
+			chunks = null;
+		}
+	}
+
+	/*
+	 * Read and write the byte of a tile from whichever store the board uses
+	 */
+	private byte get(int index)
+	{
+		if (tiles != null)
+		{
+			return tiles[index];
+		}
+		return chunks[index >>> CHUNK_SHIFT].get(index & CHUNK_MASK);
+	}
+
+	private void set(int index, int state)
+	{
+		if (tiles != null)
+		{
+			tiles[index] = (byte) state;
+		}
+		else
+		{
+			chunks[index >>> CHUNK_SHIFT].put(index & CHUNK_MASK, (byte) state);
+		}
+	}
+
+	/**
+	 * Convert a row and column into the index of the tile
+	 * @param row int representing the row
+	 * @param col int representing the column
+	 * @return int representing the index of the tile
+	 */
+	public int getIndex(int row, int col)
+	{
+		return row * cols + col;
+	}
+
+	/**
+	 * Return the packed state of a tile
+	 * @param index int representing the index of the tile
+	 * @return int containing the neighbour count and state flags
+	 */
+	public int getState(int index)
+	{
+		return get(index);
+	}
+
+	/*
+	 * Set or clear the given flag on a tile
+	 */
+	private void setFlag(int index, int flag, boolean value)
+	{
+		if (value)
+		{
+			set(index, get(index) | flag);
+		}
+		else
+		{
+			set(index, get(index) & ~flag);
+		}
+	}
+
+	/**
+	 * Increment the number of mined neighbours of a tile
+	 * @param index int representing the index of the tile
+	 */
+	void addNeighbour(int index)
+	{
+		set(index, get(index) + 1);
+	}
+
+	/**
+	 * Decrement the number of mined neighbours of a tile
+	 * @param index int representing the index of the tile
+	 */
+	void removeNeighbour(int index)
+	{
+		set(index, get(index) - 1);
+	}
+
+	/**
+	 * Set the number of mined neighbours of every tile from the mined flags,
+	 * counting a mined tile as its own neighbour as mining a tile does.
+	 * The board is copied a row at a time keeping the rows above and below,
+	 * so every tile is read and written once in order rather than nine tiles
+	 * being written at random for each mine placed.
+	 */
+	void countNeighbours()
+	{
+		if (totalTiles == 0)
+		{
+			return;
+		}
+		byte[] above = new byte[cols];
+		byte[] row = new byte[cols];
+		byte[] below = new byte[cols];
+		int[] columnMines = new int[cols + 2];
+		readRow(0, row);
+		for (int r = 0; r < rows; r++)
+		{
+			if (r + 1 < rows)
+			{
+				readRow(r + 1, below);
+			}
+			else
+			{
+				Arrays.fill(below, (byte) 0);
+			}
+			// count the mines in each column of the three rows
+			for (int c = 0; c < cols; c++)
+			{
+				columnMines[c + 1] = ((above[c] & MINED) + (row[c] & MINED) + (below[c] & MINED)) >>> 4;
+			}
+			// slide a window of three columns along the row
+			int window = columnMines[0] + columnMines[1];
+			for (int c = 0; c < cols; c++)
+			{
+				window += columnMines[c + 2];
+				row[c] = (byte) ((row[c] & ~NEIGHBOURS) | window);
+				window -= columnMines[c];
+			}
+			writeRow(r, row);
+			// the next row's above row is this row before its counts were set,
+			// only the mined flags of it are read so the counts do not matter
+			byte[] next = above;
+			above = row;
+			row = below;
+			below = next;
+		}
+	}
+
+	/**
+	 * Remove every mine from the board along with the counts of mined neighbours
+	 * in one pass over the board
+	 */
+	void clearMines()
+	{
+		byte[] row = new byte[cols];
+		for (int r = 0; r < rows; r++)
+		{
+			readRow(r, row);
+			for (int c = 0; c < cols; c++)
+			{
+				row[c] &= ~(MINED | NEIGHBOURS);
+			}
+			writeRow(r, row);
+		}
+	}
+
+	/*
+	 * Copy a row of tiles to or from an array, off heap rows
+	 * may be split across the end of one buffer and the next
+	 */
+	private void readRow(int row, byte[] dst)
+	{
+		int index = getIndex(row, 0);
+		if (tiles != null)
+		{
+			System.arraycopy(tiles, index, dst, 0, cols);
+			return;
+		}
+		for (int done = 0; done < cols;)
+		{
+			ByteBuffer chunk = chunks[(index + done) >>> CHUNK_SHIFT].duplicate();
+			chunk.position((index + done) & CHUNK_MASK);
+			int length = Math.min(cols - done, chunk.remaining());
+			chunk.get(dst, done, length);
+			done += length;
+		}
+	}
+
+	private void writeRow(int row, byte[] src)
+	{
+		int index = getIndex(row, 0);
+		if (tiles != null)
+		{
+			System.arraycopy(src, 0, tiles, index, cols);
+			return;
+		}
+		for (int done = 0; done < cols;)
+		{
+			ByteBuffer chunk = chunks[(index + done) >>> CHUNK_SHIFT].duplicate();
+			chunk.position((index + done) & CHUNK_MASK);
+			int length = Math.min(cols - done, chunk.remaining());
+			chunk.put(src, done, length);
+			done += length;
+		}
+	}
+
+	/**
+	 * Checks if the tile is correctly marked
+	 * @param index int representing the index of the tile
+	 * @return boolean true if both marked and mined
+	 */
+	public boolean isCorrect(int index)
+	{
+		return (get(index) & (MINED | MARKED)) == (MINED | MARKED);
+	}
+
+	/*
+	 * Getters and setters
+	 */
+	public boolean isMined(int index)
+	{
+		return (get(index) & MINED) != 0;
+	}
+
+	void setMined(int index, boolean mined)
+	{
+		setFlag(index, MINED, mined);
+	}
+
+	public int getMinedNeighbours(int index)
+	{
+		return get(index) & NEIGHBOURS;
+	}
+
+	void setMinedNeighbours(int index, int minedNeighbours)
+	{
+		set(index, (get(index) & ~NEIGHBOURS) | (minedNeighbours & NEIGHBOURS));
+	}
+
+	public boolean isRevealed(int index)
+	{
+		return (get(index) & REVEALED) != 0;
+	}
+
+	void setRevealed(int index, boolean revealed)
+	{
+		setFlag(index, REVEALED, revealed);
+	}
+
+	public boolean isMarked(int index)
+	{
+		return (get(index) & MARKED) != 0;
+	}
+
+	void setMarked(int index, boolean marked)
+	{
+		setFlag(index, MARKED, marked);
+	}
+
+	public boolean isChanged(int index)
+	{
+		return (get(index) & CHANGED) != 0;
+	}
+
+	void setChanged(int index, boolean changed)
+	{
+		setFlag(index, CHANGED, changed);
+	}
+
+	public int getRows()
+	{
+		return rows;
+	}
+
+	public int getCols()
+	{
+		return cols;
+	}
+
+	public int getTotalTiles()
+	{
+		return totalTiles;
+	}
+
+	/**
+	 * Checks if the board is stored off the heap
+	 * @return boolean true if the board has more than OFF_HEAP_TILES tiles
+	 */
+	public boolean isOffHeap()
+	{
+		return chunks != null;
+	}
+}
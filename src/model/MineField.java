@@ -1,9 +1,8 @@
 package model;
  
-import java.util.Random;
-
-import javafx.beans.property.SimpleStringProperty;
-import javafx.beans.property.StringProperty;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * MineField Class to setup the minefield.
@@ -14,14 +13,32 @@ import javafx.beans.property.StringProperty;
  */
 public class MineField
 {
-	private MineTile[][] minefield;
+	/*
+	 * Most changed tiles listed between clears, past it every tile is treated
+	 * as changed so the list does not grow with the size of a flood reveal
+	 */
+	public static final int CHANGED_LIMIT = 1 << 16;
+
+	private MineBoard board;
+	private int[] revealQueue;
+	private int queueHead = 0;
+	private int queueSize = 0;
+	private int[] changedTiles;
+	private int changedCount = 0;
+	private boolean allChanged = false;
 	private int numberOfMines;
+	private long seed;
 	private int minesPlaced = 0;
+	private int tilesMarked = 0;
+	private int correctTiles = 0;
+	private int tilesRevealed = 0;
 	private int rows;
 	private int cols;
 	private int totalTiles;
-	private StringProperty tilesFlagged;
-	private StringProperty minesRemaining;
+	private boolean populated = false;
+	private int safeRadius = 0;
+	private int safeRow = 0;
+	private int safeCol = 0;
 	
 	/**
 	 * Constructor for the Minefield Class
@@ -30,18 +47,9 @@ public class MineField
 	public MineField(int[] inputs) {
 		this.rows = inputs[0];
 		this.cols = inputs[1];
-		totalTiles = rows * cols;
-		// create arrays
-		if (rows <= 0 || cols <= 0)
-		{
-			minefield = new MineTile[0][0];
-		}
-		else
-		{
-			minefield = new MineTile[rows][cols];
-		}
-		// initialise arrays
-		fillArrays();
+		// create the board, empty if either dimension is not positive
+		board = new MineBoard(rows, cols);
+		totalTiles = board.getTotalTiles();
 		// if number of mines is negative set to 0
 		if (inputs[2] <= 0)
 		{
@@ -51,14 +59,11 @@ public class MineField
 		{
 			this.numberOfMines = inputs[2];
 		}
-		
-		tilesFlagged = new SimpleStringProperty(String.format("%3d", 0));
-		minesRemaining = new SimpleStringProperty(String.format("%3d", numberOfMines));
 	}
 
 	/**
 	 * Method to try and place a mine on a tile and increment surrounding tiles
-	 * numbers
+	 * numbers. Tiles in the safe area are never mined.
 	 * 
 	 * @param row represents the number of the row
 	 * @param col represents the number of the column
@@ -66,78 +71,284 @@ public class MineField
 	 */
 	public boolean mineTile(int row, int col)
 	{
-		 //Check that input is not out of bounds
-        if (row < 0 || col < 0 || row+1 > rows || col+1 > cols || (col == 0 && row == 0)) {
+		 //Check that input is not out of bounds or in the safe area
+        if (row < 0 || col < 0 || row+1 > rows || col+1 > cols || isInSafeArea(row, col)) {
             return false;
         }
         //Check that the tile is not already mined and that there are mines left to place
-		if (this.minefield[row][col].isMined() || minesPlaced >= numberOfMines)
+		if (board.isMined(board.getIndex(row, col)) || minesPlaced >= numberOfMines)
 		{
 			return false;
 		}
 		else
 		{
-			//mine the tile
-			minefield[row][col].setMined(true);
-			//Increment the surrounding neighbours whilst checking for out of bounds
-			for (int r = row - 1; r <= row + 1; r++)
+			placeMine(board.getIndex(row, col), true);
+			return true;
+		}
+	}
+
+	/*
+	 * Mine a tile. The surrounding neighbours are incremented
+	 * unless the board counts them all at once afterwards.
+	 */
+	private void placeMine(int index, boolean addNeighbours)
+	{
+		board.setMined(index, true);
+		if (board.isMarked(index))
+		{
+			correctTiles++;
+		}
+		if (addNeighbours)
+		{
+			changeNeighbours(index, true);
+		}
+		// increase number of mines placed
+		minesPlaced++;
+	}
+
+	/*
+	 * Increment or decrement the mined neighbours of the tiles around a mine
+	 * whilst checking for out of bounds
+	 */
+	private void changeNeighbours(int index, boolean add)
+	{
+		int row = index / cols;
+		int col = index % cols;
+		for (int r = row - 1; r <= row + 1; r++)
+		{
+			if (!(r < 0) && !(r >= rows))
 			{
-				if (!(r < 0) && !(r >= rows))
+				for (int c = col - 1; c <= col + 1; c++)
 				{
-					for (int c = col - 1; c <= col + 1; c++)
+					if (!(c < 0) && !(c >= cols))
 					{
-						if (!(c < 0) && !(c >= cols))
+						if (add)
+						{
+							board.addNeighbour(board.getIndex(r, c));
+						}
+						else
 						{
-							minefield[r][c].setMinedNeighbours(minefield[r][c].getMinedNeighbours() + 1);
+							board.removeNeighbour(board.getIndex(r, c));
 						}
 					}
 				}
 			}
-			// increase number of mines placed
-			minesPlaced++;
-			return true;
 		}
 	}
 
 	/**
-     * method to continuously mine tiles until no mines left to place.
+     * method to mine randomly chosen tiles using a new random seed.
      */
     public void populate()
     {
+        populate(newSeed());
+    }
+
+	/**
+     * method to mine randomly chosen tiles until no mines left to place,
+     * with the safe area around the top left tile.
+     * The same seed always produces the same board for the same dimensions.
+     * @param seed long representing the seed for the random generator
+     */
+    public void populate(long seed)
+    {
+        populate(seed, 0, 0);
+    }
+
+    /**
+     * method to populate the minefield with the safe area around a tile,
+     * the same seed and tile always produce the same board. The mines are
+     * placed by placeMines and any in the safe area are then moved out of it
+     * by clearSafeArea, so the mines can be placed before the tile is known.
+     * The safe area is the tile and, with the safe zone on, its neighbours on
+     * the board, and every tile outside it is equally likely to be mined.
+     * @param seed long representing the seed for the random generator
+     * @param row int representing the row of the safe tile
+     * @param col int representing the col of the safe tile
+     */
+    public void populate(long seed, int row, int col)
+    {
+        placeMines(seed);
+        clearSafeArea(row, col);
+    }
+
+    /**
+     * method to mine randomly chosen tiles anywhere on the board until no mines
+     * left to place, the first half of populating the minefield. Any mines
+     * already placed are removed first. Uses Floyd's sampling algorithm so each
+     * mine is placed with a single random draw and generation time does not
+     * depend on how dense the board is. Room is left for the largest safe area
+     * so the number of mines does not depend on where the safe area is moved.
+     * Off heap boards count the neighbours of every tile once all the mines
+     * are placed rather than as each mine is placed.
+     * @param seed long representing the seed for the random generator
+     */
+    public void placeMines(long seed)
+    {
+        clearMines();
+        this.seed = seed;
+        populated = true;
+
         /*
-         * Check that there is sufficient space for the mines
+         * Check that there is sufficient space for the mines outside the safe area,
          * if not change number of mines to the maximum possible.
          */
-        if (numberOfMines > totalTiles -1) {
-            numberOfMines = totalTiles -1;
+        int side = 2 * safeRadius + 1;
+        int safeTiles = totalTiles == 0 ? 0 : Math.min(side, rows) * Math.min(side, cols);
+        if (numberOfMines > totalTiles - safeTiles) {
+            numberOfMines = Math.max(0, totalTiles - safeTiles);
+        }
+
+        SplittableRandom rand = new SplittableRandom(seed);
+        boolean bulk = board.isOffHeap();
+        int index;
+        for (int j = totalTiles - getNumMinesRemaining(); j < totalTiles; j++)
+        {
+            index = rand.nextInt(j + 1);
+            // if already chosen use tile j, which cannot have been chosen yet
+            if (board.isMined(index))
+            {
+                index = j;
+            }
+            placeMine(index, !bulk);
+        }
+        if (bulk)
+        {
+            board.countNeighbours();
+        }
+    }
+
+    /**
+     * method to move the safe area to a tile once the mines are placed, the
+     * second half of populating the minefield. Each mine in the safe area is
+     * moved to a tile outside it that is not mined, chosen at random from the
+     * seed. The mines were placed without knowing where the safe area would be,
+     * so after moving them every tile outside it is still equally likely to be
+     * mined, as if the mines had only been chosen from those tiles.
+     * @param row int representing the row of the safe tile
+     * @param col int representing the col of the safe tile
+     */
+    public void clearSafeArea(int row, int col)
+    {
+        safeRow = row;
+        safeCol = col;
+        if (totalTiles == 0)
+        {
+            return;
+        }
+
+        /*
+         * Find the mines in the safe area, leaving out any tiles off the edges of the board
+         */
+        int firstRow = Math.max(0, row - safeRadius);
+        int lastRow = Math.min(rows - 1, row + safeRadius);
+        int firstCol = Math.max(0, col - safeRadius);
+        int lastCol = Math.min(cols - 1, col + safeRadius);
+        int safeCount = (lastRow - firstRow + 1) * (lastCol - firstCol + 1);
+        int[] moved = new int[safeCount];
+        int movedCount = 0;
+        for (int r = firstRow; r <= lastRow; r++)
+        {
+            for (int c = firstCol; c <= lastCol; c++)
+            {
+                if (board.isMined(board.getIndex(r, c)))
+                {
+                    moved[movedCount++] = board.getIndex(r, c);
+                }
+            }
+        }
+        if (movedCount == 0)
+        {
+            return;
         }
 
-        //select a random row and column and try to mine it
-        Random rand = new Random();
-        int row;
-        int col;
-        while (getNumMinesRemaining() > 0)
+        /*
+         * Move each mine to a free tile outside the safe area,
+         * using a generator split from the seed so the placement is unchanged
+         */
+        SplittableRandom rand = new SplittableRandom(seed).split();
+        int free = totalTiles - safeCount - (minesPlaced - movedCount);
+        for (int i = 0; i < movedCount; i++)
         {
-            row = rand.nextInt(rows);
-            col = rand.nextInt(cols);
+            moveMine(moved[i], chooseFreeTile(rand, free--));
+        }
+    }
 
-            mineTile(row, col);
+    /*
+     * Return a tile outside the safe area that is not mined, each equally likely.
+     * Random tiles are tried until one is free, unless few tiles are free when
+     * the free tiles are counted through instead
+     */
+    private int chooseFreeTile(SplittableRandom rand, int free)
+    {
+        if ((long) free * 64 >= totalTiles)
+        {
+            while (true)
+            {
+                int index = rand.nextInt(totalTiles);
+                if (isFree(index))
+                {
+                    return index;
+                }
+            }
+        }
+        int remaining = rand.nextInt(free);
+        for (int index = 0; ; index++)
+        {
+            if (isFree(index) && remaining-- == 0)
+            {
+                return index;
+            }
         }
     }
 
-	/**
-	 * Method to initialise the array with blank data.
-	 */
-	private void fillArrays()
-	{
-		for (int row = 0; row < rows; row++)
-		{
-			for (int col = 0; col < minefield[row].length; col++)
-			{
-				minefield[row][col] = new MineTile();
-			}
-		}
-	}
+    private boolean isFree(int index)
+    {
+        return !board.isMined(index) && !isInSafeArea(index / cols, index % cols);
+    }
+
+    /*
+     * Move a mine to a tile that is not mined, keeping the counts of mined
+     * neighbours and correctly marked tiles
+     */
+    private void moveMine(int from, int to)
+    {
+        board.setMined(from, false);
+        changeNeighbours(from, false);
+        if (board.isMarked(from))
+        {
+            correctTiles--;
+        }
+        board.setMined(to, true);
+        changeNeighbours(to, true);
+        if (board.isMarked(to))
+        {
+            correctTiles++;
+        }
+    }
+
+    /*
+     * Remove every mine from the board along with the counts of mined neighbours
+     * in one pass over the board, the mines are not listed anywhere else
+     */
+    private void clearMines()
+    {
+        if (minesPlaced > 0)
+        {
+            // no marked tile is mined once every mine is removed
+            board.clearMines();
+            correctTiles = 0;
+            minesPlaced = 0;
+        }
+    }
+
+    /*
+     * Check whether a tile is within the safe area
+     */
+    private boolean isInSafeArea(int row, int col)
+    {
+        return Math.abs(row - safeRow) <= safeRadius && Math.abs(col - safeCol) <= safeRadius;
+    }
 
 	/**
 	 * Method to toggle whether a tile is marked.
@@ -147,27 +358,40 @@ public class MineField
 	public void markTile(int row, int col)
 	{
 		
-		MineTile tile = minefield[row][col];
+		int index = board.getIndex(row, col);
 		//if tile is already revealed do nothing
-		if(tile.isRevealed()) {
+		if(board.isRevealed(index)) {
 			
 		}
 		
 		//If not Check tile and if marked unmark. if unmarked then mark
-		else if (tile.isMarked())
+		else if (board.isMarked(index))
 		{
-			tile.setMarked(false);
+			board.setMarked(index, false);
+			tileChanged(index);
+			tilesMarked--;
+			if (board.isMined(index))
+			{
+				correctTiles--;
+			}
 		}
 		else
 		{
-			tile.setMarked(true);
+			board.setMarked(index, true);
+			tileChanged(index);
+			tilesMarked++;
+			if (board.isMined(index))
+			{
+				correctTiles++;
+			}
 		}
 	}
 
+
 	/**
 	 * Method to step on a tile and return false if mined
-	 * otherwise return true and check its neighbours recursively
-	 * to reveal all tiles with no mined neighbours
+	 * otherwise return true and reveal all connected tiles
+	 * with no mined neighbours
 	 * @param row int representing the row to step on
 	 * @param col int representing the col to step on
 	 * @return boolean false if mined true if not
@@ -176,117 +400,313 @@ public class MineField
 	{
 		
 		
-		MineTile tile = minefield[row][col];
+		int index = board.getIndex(row, col);
 		//if tile is marked return true
-		if(tile.isMarked()){
+		if(board.isMarked(index)){
 			return true;
 		}
 		//If tile is mined return false
-		if (tile.isMined())
+		if (board.isMined(index))
 		{
 			return false;
 		}
 		else
 		{
 			//If tile is revealed return true
-			if (tile.isRevealed())
+			if (board.isRevealed(index))
 			{
 				return true;
 			}
 			
 			/*
-			 * If not, set revealed and then recursively
-			 * reveal all neighbours with no mined neighbours. 
+			 * If not, set revealed and then reveal all
+			 * neighbours with no mined neighbours. 
 			 */
-			tile.setRevealed(true);
-			if (tile.getMinedNeighbours() == 0)
+			revealTile(index);
+			if (board.getMinedNeighbours(index) == 0)
 			{
-				for (int r = row - 1; r <= row + 1; r++)
+				floodReveal(index);
+			}
+		}
+		return true;
+	}
+
+	/*
+	 * Reveal the region around a revealed tile with no mined neighbours.
+	 * Uses the revealQueue as a work queue rather than recursion, tiles are
+	 * revealed as they are queued so each tile is visited at most once.
+	 * Marked and mined tiles are never revealed.
+	 */
+	private void floodReveal(int start)
+	{
+		queueHead = 0;
+		queueSize = 0;
+		enqueue(start);
+		
+		while (queueSize > 0)
+		{
+			int index = dequeue();
+			int row = index / cols;
+			int col = index % cols;
+			for (int r = row - 1; r <= row + 1; r++)
+			{
+				if (!(r < 0) && !(r >= rows))
 				{
-					if (!(r < 0) && !(r >= rows))
+					for (int c = col - 1; c <= col + 1; c++)
 					{
-						for (int c = col - 1; c <= col + 1; c++)
+						if (!(c < 0) && !(c >= cols))
 						{
-							if (!(c < 0) && !(c >= cols))
+							int neighbour = board.getIndex(r, c);
+							int state = board.getState(neighbour);
+							// skip tiles that are revealed, marked or mined
+							if ((state & (MineBoard.REVEALED | MineBoard.MARKED | MineBoard.MINED)) == 0)
 							{
-								stepOnTile(r, c);
+								revealTile(neighbour);
+								if ((state & MineBoard.NEIGHBOURS) == 0)
+								{
+									enqueue(neighbour);
+								}
 							}
 						}
 					}
 				}
 			}
 		}
-		return true;
+	}
+
+	/*
+	 * The revealQueue is a circular queue that only holds the edge of the
+	 * region being revealed, it grows when full rather than being created
+	 * with a place for every tile on the board
+	 */
+	private void enqueue(int index)
+	{
+		// create the queue on the first flood, it is reused for every click
+		if (revealQueue == null)
+		{
+			revealQueue = new int[Math.min(1024, Math.max(1, totalTiles))];
+		}
+		else if (queueSize == revealQueue.length)
+		{
+			int[] queue = new int[revealQueue.length * 2];
+			int first = revealQueue.length - queueHead;
+			System.arraycopy(revealQueue, queueHead, queue, 0, first);
+			System.arraycopy(revealQueue, 0, queue, first, queueHead);
+			revealQueue = queue;
+			queueHead = 0;
+		}
+		int tail = queueHead + queueSize;
+		revealQueue[tail < revealQueue.length ? tail : tail - revealQueue.length] = index;
+		queueSize++;
+	}
+
+	private int dequeue()
+	{
+		int index = revealQueue[queueHead];
+		queueHead = queueHead + 1 == revealQueue.length ? 0 : queueHead + 1;
+		queueSize--;
+		return index;
+	}
+
+	/*
+	 * Set a tile as revealed and record it as changed
+	 */
+	private void revealTile(int index)
+	{
+		board.setRevealed(index, true);
+		tilesRevealed++;
+		tileChanged(index);
+	}
+
+	/*
+	 * Record that a tile has changed since the changed tiles were last cleared.
+	 * The changed flag on the board stops a tile being listed twice. Once
+	 * CHANGED_LIMIT tiles are listed no more are, every tile is treated as changed.
+	 */
+	private void tileChanged(int index)
+	{
+		if (!board.isChanged(index))
+		{
+			if (changedCount == CHANGED_LIMIT)
+			{
+				allChanged = true;
+				return;
+			}
+			// create the list on the first change, it is reused for every click
+			// and grows when full up to the limit
+			if (changedTiles == null)
+			{
+				changedTiles = new int[Math.min(1024, totalTiles)];
+			}
+			else if (changedCount == changedTiles.length)
+			{
+				changedTiles = Arrays.copyOf(changedTiles, Math.min(2 * changedCount, Math.min(totalTiles, CHANGED_LIMIT)));
+			}
+			board.setChanged(index, true);
+			changedTiles[changedCount++] = index;
+		}
+	}
+
+	/**
+	 * Method to clear the list of changed tiles,
+	 * used once the changes have been displayed
+	 */
+	public void clearChangedTiles()
+	{
+		for (int i = 0; i < changedCount; i++)
+		{
+			board.setChanged(changedTiles[i], false);
+		}
+		changedCount = 0;
+		allChanged = false;
 	}
 
 	/**
 	 * Method to check if all mineTiles that are mined 
 	 * are also marked or if only mines remain unrevealed. 
-	 * Used to check for end of the game.
+	 * Used to check for end of the game, the counts are kept
+	 * up to date as tiles are marked and revealed.
 	 * @return boolean true is all mines marked correctly false if not
 	 */
 	
 	public boolean areAllMinesRevealed()
 	{
-		//initialise counter
-		int correctTiles = 0;
-		int tilesMarked = 0;
-		int tilesRevealed = 0;
-		
-		//check each tile and increase count if it is both mined and marked 
-		for (int row = 0; row < rows; row++)
-		{
-			for (int col = 0; col < cols; col++)
-			{
-				if (minefield[row][col].isCorrect())
-				{
-					correctTiles ++;
-				}
-				if (minefield[row][col].isMarked()) 
-				{
-					tilesMarked ++;
-				}
-				if (minefield[row][col].isRevealed())
-				{
-					tilesRevealed++;
-				}
-			}
-		}
-		
-		tilesFlagged.set(String.format("%3d", tilesMarked));
-		minesRemaining.set(String.format("%3d", numberOfMines - tilesMarked));
-		
 		//return if correct count matches number of mines placed 
 		return ((minesPlaced == correctTiles)&&(tilesMarked == correctTiles)||totalTiles - tilesRevealed == minesPlaced);
 	}
 
 	/**
 	 * Method to reveal all the mines,
-	 * used at the end of the game
+	 * used at the end of the game. The board is swept
+	 * in order to find the mines as their positions are not kept.
 	 */
 	public void revealAllMines()
 	{
-		//Check each tile and if mined set to revealed
-		for (int row = 0; row < rows; row++)
+		for (int index = 0; index < totalTiles; index++)
 		{
-			for (int col = 0; col < cols; col++)
+			if ((board.getState(index) & (MineBoard.MINED | MineBoard.REVEALED)) == MineBoard.MINED)
 			{
-				if (minefield[row][col].isMined())
-				{
-					minefield[row][col].setRevealed(true);
-				}
+				revealTile(index);
 			}
 		}
 	}
 
+	/*
+	 * Methods used by GameSnapshot to restore a saved minefield. Every mine is
+	 * placed first and the neighbours are counted once they are all placed,
+	 * then the revealed and marked tiles are restored without being flooded.
+	 */
+	void restoreMine(int index)
+	{
+		placeMine(index, false);
+	}
+
+	void restorePopulated(long seed, int safeRow, int safeCol)
+	{
+		board.countNeighbours();
+		this.seed = seed;
+		this.safeRow = safeRow;
+		this.safeCol = safeCol;
+		populated = true;
+	}
+
+	void restoreTile(int index, boolean revealed, boolean marked)
+	{
+		if (revealed)
+		{
+			board.setRevealed(index, true);
+			tilesRevealed++;
+		}
+		if (marked && !board.isRevealed(index))
+		{
+			board.setMarked(index, true);
+			tilesMarked++;
+			if (board.isMined(index))
+			{
+				correctTiles++;
+			}
+		}
+	}
+
+	/**
+	 * Method to create a new random seed for populating a minefield
+	 * @return long representing the new seed
+	 */
+	public static long newSeed()
+	{
+		return ThreadLocalRandom.current().nextLong();
+	}
+
 	/*
 	 * Getter Methods
 	 */
 	public MineTile getMineTile(int row, int col)
 	{
-		return minefield[row][col];
+		return new MineTile(board, board.getIndex(row, col));
+	}
+	
+	/**
+	 * Returns the indexes of the tiles changed by stepOnTile, markTile and
+	 * revealAllMines since clearChangedTiles was last called.
+	 * Only the first getChangedCount() entries are valid, and if isAllChanged
+	 * the list is not complete and every tile should be treated as changed.
+	 * @return int[] containing the indexes of the changed tiles
+	 */
+	public int[] getChangedTiles()
+	{
+		return changedTiles;
+	}
+
+	public int getChangedCount()
+	{
+		return changedCount;
+	}
+
+	/**
+	 * Checks if more than CHANGED_LIMIT tiles have changed since clearChangedTiles
+	 * was last called, so only some of them are in getChangedTiles
+	 * @return boolean true if every tile should be treated as changed
+	 */
+	public boolean isAllChanged()
+	{
+		return allChanged;
 	}
 	
+	public long getSeed()
+	{
+		return seed;
+	}
+
+	public boolean isPopulated()
+	{
+		return populated;
+	}
+
+	public boolean isSafeZone()
+	{
+		return safeRadius > 0;
+	}
+
+	/**
+	 * Set whether the tiles around the safe tile are also kept free of mines,
+	 * takes effect the next time the minefield is populated
+	 * @param safeZone boolean true to keep the 3x3 area around the safe tile free
+	 */
+	public void setSafeZone(boolean safeZone)
+	{
+		safeRadius = safeZone ? 1 : 0;
+	}
+
+	public int getSafeRow()
+	{
+		return safeRow;
+	}
+
+	public int getSafeCol()
+	{
+		return safeCol;
+	}
+
 	public int getNumberOfMines()
 	{
 		return numberOfMines;
@@ -309,15 +729,23 @@ public class MineField
 		return totalTiles;
 	}
 	
-	public StringProperty getTilesFlagged() {
-		return tilesFlagged;
+	public int getMinesPlaced() {
+		return minesPlaced;
+	}
+	
+	public int getTilesRevealed() {
+		return tilesRevealed;
+	}
+	
+	public int getTilesMarked() {
+		return tilesMarked;
 	}
 	
-	public StringProperty getMinesRemaining() {
-		return minesRemaining;
+	public int getMinesNotMarked() {
+		return numberOfMines - tilesMarked;
 	}
 	
-	public MineTile[][] getMinefield() {
-		return minefield;
+	public MineBoard getBoard() {
+		return board;
 	}
 }
@@ -1,37 +1,39 @@
 package model;
 
- 
+
 /**
- * MineTileClass to store tile information for a tile in the game
- * 
+ * MineTileClass to give access to the information for a tile in the game.
+ * The tile does not hold any state itself, it is a view onto a single
+ * tile of a MineBoard. The setters only change the board, not the counts
+ * MineField keeps of revealed, marked and mined tiles, so they are left to
+ * the model package and the game changes tiles through MineField.
+ *
  * @author Daniel Newsom
  * @version 3.0
- * 
+ *
  */
 public class MineTile
 {
-	private boolean mined;
-	private int minedNeighbours;
-	private boolean revealed;
-	private boolean marked;
+	private MineBoard board;
+	private int index;
 
 	/**
 	 * Constructor for the MineTile Class
+	 * @param board MineBoard holding the state of the tile
+	 * @param index int representing the index of the tile on the board
 	 */
-	public MineTile()
+	public MineTile(MineBoard board, int index)
 	{
-		mined = false;
-		minedNeighbours = 0;
-		revealed = false;
-		marked = false;
+		this.board = board;
+		this.index = index;
 	}
 
 	/**
 	 * Increment minedNeighbours
 	 */
-	public void addNeighbour() 
+	void addNeighbour()
 	{
-		minedNeighbours ++;
+		board.addNeighbour(index);
 	}
 	/**
 	 * Checks if the tile is correctly marked
@@ -39,51 +41,54 @@ public class MineTile
 	 */
 	public boolean isCorrect()
 	{
-		return marked && mined;
+		return board.isCorrect(index);
 	}
-	
+
 	/*
 	 * Getters and setters
 	 */
 	public boolean isMined()
 	{
-		return mined;
+		return board.isMined(index);
 	}
 
-	public void setMined(boolean mined)
+	void setMined(boolean mined)
 	{
-		this.mined = mined;
+		board.setMined(index, mined);
 	}
 
 	public int getMinedNeighbours()
 	{
-		return minedNeighbours;
+		return board.getMinedNeighbours(index);
 	}
 
-	public void setMinedNeighbours(int minedNeighbours)
+	void setMinedNeighbours(int minedNeighbours)
 	{
-		this.minedNeighbours = minedNeighbours;
+		board.setMinedNeighbours(index, minedNeighbours);
 	}
 
 	public boolean isRevealed()
 	{
-		return revealed;
+		return board.isRevealed(index);
 	}
 
-	public void setRevealed(boolean revealed)
+	void setRevealed(boolean revealed)
 	{
-		this.revealed = revealed;
+		board.setRevealed(index, revealed);
 	}
 
 	public boolean isMarked()
 	{
-		return marked;
+		return board.isMarked(index);
+	}
+
+	void setMarked(boolean marked)
+	{
+		board.setMarked(index, marked);
 	}
 
-	public void setMarked(boolean marked)
+	public int getIndex()
 	{
-		this.marked = marked;
+		return index;
 	}
-	
-	
 }
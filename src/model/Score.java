@@ -3,8 +3,6 @@ package model;
 import java.util.ArrayList;
 import java.util.Comparator;
 
-import application.MineSweeper;
-
 /**
  * Score Class to represent a score item
  * 
@@ -15,6 +13,9 @@ public class Score implements Comparable<Score>, Comparator<Score>{
 
 	private String name;
 	private int time;
+	private GameRecording recording;
+	private boolean verified = false;
+	private boolean verifyPending = false;
 
 	/**
 	 * Constructor for the Score Class
@@ -49,6 +50,29 @@ public class Score implements Comparable<Score>, Comparator<Score>{
 		return o1.compareTo(o2);
 	}
 
+	/**
+	 * Create a string from time for the win dialog and highscores.
+	 * @param time int representing the time to convert
+	 * @return String representing the time taken
+	 * 
+	 */
+	public static String getTimeAsString(int time) {
+		if(time < 60) {
+			if(time > 1) {
+				return String.format("%s", String.format("%02d seconds", time));	
+			}
+			else {
+				return String.format("%s", String.format("%02d second", time));	
+			}
+		}
+		else if (time < 120)  {
+			return String.format("%s",String.format("%02d minute and %02d seconds",time / 60, time % 60));
+		}
+		else {
+			return String.format("%s",String.format("%02d minutes and %02d seconds",time / 60, time % 60));
+		}
+	}
+
 	/**
 	 * method to sort list of scores
 	 * @param list list to sort
@@ -76,12 +100,47 @@ public class Score implements Comparable<Score>, Comparator<Score>{
 		this.time = time;
 	}
 
+	/**
+	 * Returns the recording of the game the score was set in
+	 * @return GameRecording representing the recording, or null if it was not recorded
+	 */
+	public GameRecording getRecording() {
+		return recording;
+	}
+
+	public void setRecording(GameRecording recording) {
+		this.recording = recording;
+	}
+
+	/**
+	 * Returns whether the score has been checked by replaying its recording
+	 * @return boolean true if ScoreVerifier verified the score
+	 */
+	public boolean isVerified() {
+		return verified;
+	}
+
+	public void setVerified(boolean verified) {
+		this.verified = verified;
+	}
+
+	/*
+	 * Whether the score has been read back with its recording and not verified again yet
+	 */
+	boolean isVerifyPending() {
+		return verifyPending;
+	}
+
+	void setVerifyPending(boolean verifyPending) {
+		this.verifyPending = verifyPending;
+	}
+
 	/**
 	 * Override toString method
 	 * @return String string representation of the object
 	 */
 	public String toString() {
 				
-		return String.format("%s %s", name, MineSweeper.getTimeAsString(time));
+		return String.format("%s %s", name, getTimeAsString(time));
 	}
 }
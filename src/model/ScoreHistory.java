@@ -0,0 +1,98 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+/**
+ * ScoreHistory Class to keep every score set on a level in the order they were
+ * set, with a sorted index over them so the best scores can be read without
+ * sorting the whole history. The index holds the position of each score in the
+ * history, ordered by time then name as Score orders them, with scores that are
+ * equal kept in the order they were set. Adding a score takes log n time and
+ * reading the best n scores takes n log n time however long the history is.
+ *
+ * @author Daniel Newsom
+ * @version 3.0
+ *
+ */
+public class ScoreHistory {
+
+	private ArrayList<Score> history = new ArrayList<Score>();
+	private TreeSet<Integer> ranking = new TreeSet<Integer>((a, b)->{return compareEntries(a, b);});
+
+	/*
+	 * Compare two scores by their position in the history
+	 */
+	private int compareEntries(int a, int b) {
+		int compare = history.get(a).compareTo(history.get(b));
+		return compare != 0 ? compare : Integer.compare(a, b);
+	}
+
+	/**
+	 * Add a score to the end of the history
+	 * @param score Score to add
+	 */
+	public void add(Score score) {
+		history.add(score);
+		ranking.add(history.size() - 1);
+	}
+
+	/**
+	 * Return the best scores, fastest first
+	 * @param n int representing the most scores to return
+	 * @return List of up to n scores
+	 */
+	public List<Score> getTop(int n) {
+		return getTop(n, score->{return true;});
+	}
+
+	/**
+	 * Return the best scores that are ranked, fastest first. A score found not to be
+	 * ranked is removed from the index, it stays in the history but is not checked again.
+	 * @param n int representing the most scores to return
+	 * @param ranked Predicate returning true for the scores that can be ranked
+	 * @return List of up to n scores
+	 */
+	public List<Score> getTop(int n, Predicate<Score> ranked) {
+		List<Score> top = new ArrayList<Score>(Math.min(n, history.size()));
+		Iterator<Integer> iterator = ranking.iterator();
+		while (top.size() < n && iterator.hasNext()) {
+			Score score = history.get(iterator.next());
+			if(ranked.test(score)) {
+				top.add(score);
+			}
+			else {
+				iterator.remove();
+			}
+		}
+		return top;
+	}
+
+	/**
+	 * Remove every score from the history
+	 */
+	public void clear() {
+		history.clear();
+		ranking.clear();
+	}
+
+	/*
+	 * Getters
+	 */
+
+	/**
+	 * Returns every score in the order they were set
+	 * @return List of the scores
+	 */
+	public List<Score> getHistory() {
+		return Collections.unmodifiableList(history);
+	}
+
+	public int size() {
+		return history.size();
+	}
+}
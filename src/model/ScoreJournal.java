@@ -0,0 +1,407 @@
+package model;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * ScoreJournal Class to keep the high scores and settings in an append only file.
+ *
+ * The file starts with a magic number and version, followed by records. Each
+ * record is its length, a CRC32 of its contents, then a type and the score,
+ * settings or time statistics it holds. Every change is appended and forced to disk as it is made,
+ * so a score is kept from the moment it is set. Reading stops at the first
+ * record that is cut short or fails its checksum, and the file is truncated
+ * there, so a crash while appending only loses the record being written. A
+ * file without a valid header, such as one written by a newer version, is
+ * never truncated, it is moved aside and a new journal is started.
+ *
+ * Every score is kept, but each settings record replaces the one before it.
+ * Once enough settings records have built up the journal is compacted, the
+ * scores, current settings and the time statistics of each level are written
+ * to a temporary file which is then moved over the journal, so the journal is
+ * never left partly rewritten. The statistics replace those built from the
+ * scores before them, and scores after them are added to them.
+ *
+ * @author Daniel Newsom
+ * @version 3.0
+ *
+ */
+public class ScoreJournal {
+
+	private static final int MAGIC = 0x4D534A4E;
+	private static final byte VERSION = 1;
+	private static final int FILE_HEADER_SIZE = 4 + 1;
+	private static final int RECORD_HEADER_SIZE = 4 + 4;
+
+	/*
+	 * Settings records in the journal before it is compacted
+	 */
+	private static final int COMPACT_SETTINGS = 64;
+
+	/*
+	 * Types of record
+	 */
+	private static final byte SCORE = 1;
+	private static final byte SETTINGS = 2;
+	private static final byte STATISTICS = 3;
+
+	private Path path;
+	private FileChannel channel;
+	private int settingsRecords = 0;
+
+	/**
+	 * Constructor for the ScoreJournal class, the journal is opened by replay
+	 * @param path Path of the journal file
+	 */
+	public ScoreJournal(Path path) {
+		this.path = path;
+	}
+
+	/**
+	 * Read every record in the journal, restoring its scores to HighScores and its
+	 * settings to Level, then open the journal to append to. A journal that is
+	 * missing restores nothing, one without a valid header is moved aside to a
+	 * file ending .corrupt so it can be recovered and a new journal is started.
+	 * @return boolean true if the journal existed and had a valid header
+	 * @throws IOException if the journal cannot be read, opened or moved aside
+	 */
+	public boolean replay() throws IOException {
+		close();
+		channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		if(channel.size() > Integer.MAX_VALUE) {
+			throw new IOException("Score journal is too large");
+		}
+		ByteBuffer buffer = ByteBuffer.allocate((int) channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+		while (buffer.hasRemaining()) {
+			if(channel.read(buffer, buffer.position()) < 0) {
+				throw new IOException("Score journal is too short");
+			}
+		}
+		buffer.flip();
+		settingsRecords = 0;
+
+		if(!buffer.hasRemaining()) {
+			writeHeader();
+			return false;
+		}
+		if(buffer.remaining() < FILE_HEADER_SIZE || buffer.getInt() != MAGIC || buffer.get() != VERSION) {
+			moveAside();
+			writeHeader();
+			return false;
+		}
+
+		long end = FILE_HEADER_SIZE;
+		CRC32 crc = new CRC32();
+		while (buffer.remaining() >= RECORD_HEADER_SIZE) {
+			int length = buffer.getInt();
+			int checksum = buffer.getInt();
+			if(length <= 0 || length > buffer.remaining()) {
+				break;
+			}
+			crc.reset();
+			crc.update(buffer.array(), buffer.position(), length);
+			if((int) crc.getValue() != checksum) {
+				break;
+			}
+			ByteBuffer record = buffer.slice();
+			record.limit(length);
+			buffer.position(buffer.position() + length);
+			try {
+				readRecord(record.order(ByteOrder.LITTLE_ENDIAN));
+			} catch (BufferUnderflowException | IllegalArgumentException e) {
+				break;
+			}
+			end = buffer.position();
+		}
+
+		// drop anything after the last valid record, such as a record cut short by a crash
+		channel.truncate(end);
+		channel.position(end);
+		return true;
+	}
+
+	/*
+	 * Move a journal that cannot be read to an unused file next to it, keeping it
+	 * for recovery, and open a new empty journal in its place
+	 */
+	private void moveAside() throws IOException {
+		close();
+		Path corrupt = path.resolveSibling(path.getFileName() + ".corrupt");
+		for (int i = 1; Files.exists(corrupt); i++) {
+			corrupt = path.resolveSibling(path.getFileName() + ".corrupt" + i);
+		}
+		Files.move(path, corrupt);
+		forceDirectory();
+		System.err.println("Score journal " + path + " has no valid header, moved to " + corrupt);
+		channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+	}
+
+	/*
+	 * Write the file header to the empty journal and force it to disk
+	 */
+	private void writeHeader() throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+		header.putInt(MAGIC);
+		header.put(VERSION);
+		header.flip();
+		write(header);
+		channel.force(true);
+	}
+
+	/*
+	 * Force the directory holding the journal to disk so a file moved into it is
+	 * kept after a crash. Not every platform can open a directory, on those the
+	 * move is left to the file system.
+	 */
+	private void forceDirectory() {
+		Path directory = path.toAbsolutePath().getParent();
+		if(directory == null) {
+			return;
+		}
+		try (FileChannel directoryChannel = FileChannel.open(directory, StandardOpenOption.READ)) {
+			directoryChannel.force(true);
+		} catch (IOException e) {
+			// the directory cannot be opened on this platform
+		}
+	}
+
+	/*
+	 * Restore the score or settings held by a record
+	 */
+	private void readRecord(ByteBuffer record) {
+		byte type = record.get();
+		Level level = readLevel(record);
+		if(type == SCORE) {
+			int time = record.getInt();
+			byte[] name = new byte[record.getShort() & 0xFFFF];
+			record.get(name);
+			int[] levelDetails = {record.getInt(), record.getInt(), record.getInt()};
+			int recordingSize = record.getInt();
+			GameRecording recording = null;
+			if(recordingSize > 0) {
+				try {
+					ByteBuffer recordingBuffer = record.slice();
+					recordingBuffer.limit(recordingSize);
+					recording = GameRecording.readFrom(recordingBuffer);
+				} catch (IOException e) {
+					// a recording that cannot be read leaves the score unverified
+				}
+				record.position(record.position() + recordingSize);
+			}
+			String scoreName = new String(name, StandardCharsets.UTF_8);
+			Score score = level == Level.CUSTOM ? new CustomScore(scoreName, time, levelDetails) : new Score(scoreName, time);
+			score.setRecording(recording);
+			HighScores.restoreScore(level, score);
+		}
+		else if(type == SETTINGS) {
+			settingsRecords++;
+			int[] custom = {record.getInt(), record.getInt(), record.getInt()};
+			Level.setLevel(level);
+			if(Level.validateCustomArray(custom[0], custom[1], custom[2]) == null) {
+				Level.setCustomArray(custom);
+			}
+		}
+		else if(type == STATISTICS) {
+			HighScores.restoreStatistics(level, TimeSketch.readFrom(record));
+		}
+		else {
+			throw new IllegalArgumentException("Unknown record type " + type);
+		}
+	}
+
+	/*
+	 * Read the index of a level
+	 */
+	private static Level readLevel(ByteBuffer record) {
+		int index = record.get();
+		if(index < 0 || index >= Level.values().length) {
+			throw new IllegalArgumentException("Unknown level " + index);
+		}
+		return Level.values()[index];
+	}
+
+	/**
+	 * Append a score and force it to disk
+	 * @param level Level the score was set on
+	 * @param score Score to append
+	 * @throws IOException if the score cannot be written
+	 */
+	public void appendScore(Level level, Score score) throws IOException {
+		write(encodeScore(level, score));
+		channel.force(false);
+	}
+
+	/**
+	 * Append the current level and custom level parameters and force them to disk
+	 * @param level Level currently selected
+	 * @param custom int[] representing the rows, columns and mines of the custom level
+	 * @throws IOException if the settings cannot be written
+	 */
+	public void appendSettings(Level level, int[] custom) throws IOException {
+		write(encodeSettings(level, custom));
+		channel.force(false);
+		settingsRecords++;
+	}
+
+	/**
+	 * Checks if enough settings records have built up that the journal should be compacted
+	 * @return boolean true if the journal should be compacted
+	 */
+	public boolean isCompactDue() {
+		return settingsRecords >= COMPACT_SETTINGS;
+	}
+
+	/**
+	 * Replace the journal with one holding only the given scores, settings and statistics.
+	 * The new journal is written to a temporary file and moved over the old one.
+	 * @param highScores List of the score lists for each level, in level index order
+	 * @param statistics TimeSketch[] of the statistics for each level, in level index order
+	 * @param level Level currently selected
+	 * @param custom int[] representing the rows, columns and mines of the custom level
+	 * @throws IOException if the journal cannot be written
+	 */
+	public void compact(List<? extends List<Score>> highScores, TimeSketch[] statistics, Level level, int[] custom)
+			throws IOException {
+		Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+		try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			header.putInt(MAGIC);
+			header.put(VERSION);
+			header.flip();
+			write(out, header);
+			for (int i = 0; i < highScores.size(); i++) {
+				for (Score score : highScores.get(i)) {
+					write(out, encodeScore(Level.values()[i], score));
+				}
+			}
+			for (int i = 0; i < statistics.length; i++) {
+				write(out, encodeStatistics(Level.values()[i], statistics[i]));
+			}
+			write(out, encodeSettings(level, custom));
+			out.force(true);
+		}
+		close();
+		Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		forceDirectory();
+		channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		channel.position(channel.size());
+		settingsRecords = 1;
+	}
+
+	/**
+	 * Close the journal, it can be opened again by replay
+	 * @throws IOException if the journal cannot be closed
+	 */
+	public void close() throws IOException {
+		if(channel != null) {
+			channel.close();
+			channel = null;
+		}
+	}
+
+	/*
+	 * Encode a score as a record
+	 */
+	private static ByteBuffer encodeScore(Level level, Score score) {
+		byte[] name = score.getName().getBytes(StandardCharsets.UTF_8);
+		int nameLength = Math.min(name.length, 0xFFFF);
+		int[] levelDetails = score instanceof CustomScore ? ((CustomScore) score).getLevelDetails()
+				: Level.getLevelArray(level);
+		GameRecording recording = score.getRecording();
+		int recordingSize = recording == null ? 0 : recording.getSize();
+
+		ByteBuffer record = startRecord(1 + 1 + 4 + 2 + nameLength + 4 * 3 + 4 + recordingSize);
+		record.put(SCORE);
+		record.put((byte) Level.getLevelIndex(level));
+		record.putInt(score.getTime());
+		record.putShort((short) nameLength);
+		record.put(name, 0, nameLength);
+		record.putInt(levelDetails[0]);
+		record.putInt(levelDetails[1]);
+		record.putInt(levelDetails[2]);
+		record.putInt(recordingSize);
+		if(recording != null) {
+			recording.writeTo(record);
+		}
+		return endRecord(record);
+	}
+
+	/*
+	 * Encode the settings as a record
+	 */
+	private static ByteBuffer encodeSettings(Level level, int[] custom) {
+		ByteBuffer record = startRecord(1 + 1 + 4 * 3);
+		record.put(SETTINGS);
+		record.put((byte) Level.getLevelIndex(level));
+		record.putInt(custom[0]);
+		record.putInt(custom[1]);
+		record.putInt(custom[2]);
+		return endRecord(record);
+	}
+
+	/*
+	 * Encode the time statistics of a level as a record
+	 */
+	private static ByteBuffer encodeStatistics(Level level, TimeSketch statistics) {
+		ByteBuffer record = startRecord(1 + 1 + statistics.getSize());
+		record.put(STATISTICS);
+		record.put((byte) Level.getLevelIndex(level));
+		statistics.writeTo(record);
+		return endRecord(record);
+	}
+
+	/*
+	 * Create a buffer for a record of the given length, positioned after its header
+	 */
+	private static ByteBuffer startRecord(int length) {
+		ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + length).order(ByteOrder.LITTLE_ENDIAN);
+		record.putInt(length);
+		record.putInt(0);
+		return record;
+	}
+
+	/*
+	 * Fill in the checksum of a record and flip it ready to be written
+	 */
+	private static ByteBuffer endRecord(ByteBuffer record) {
+		CRC32 crc = new CRC32();
+		crc.update(record.array(), RECORD_HEADER_SIZE, record.position() - RECORD_HEADER_SIZE);
+		record.putInt(4, (int) crc.getValue());
+		record.flip();
+		return record;
+	}
+
+	/*
+	 * Write everything in the buffer to the journal
+	 */
+	private void write(ByteBuffer buffer) throws IOException {
+		if(channel == null) {
+			throw new IOException("Score journal is not open");
+		}
+		write(channel, buffer);
+	}
+
+	private static void write(FileChannel channel, ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+
+	/*
+	 * Getters
+	 */
+	public Path getPath() {
+		return path;
+	}
+}
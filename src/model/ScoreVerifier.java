@@ -0,0 +1,80 @@
+package model;
+
+/**
+ * ScoreVerifier Class to check a high score against the recording of the
+ * game it was set in. The recording is replayed headless against the board
+ * regenerated from its seed, the score is only verified if the replayed game
+ * is won on the level of the score and the time is no faster than the
+ * recording shows the game took.
+ *
+ * The delays between events are written by the player's own game, so the
+ * time can only be checked for being humanly possible. Recordings made by a
+ * program without real delays between clicks are rejected, but a recording
+ * forged with believable delays is not told apart from one really played.
+ *
+ * @author Daniel Newsom
+ * @version 3.0
+ *
+ */
+public class ScoreVerifier {
+
+	/*
+	 * Seconds a score may be faster than its recording, the game timer
+	 * ticks once a second so may be behind the time of the last event
+	 */
+	private static final int TIME_TOLERANCE = 1;
+
+	/*
+	 * Fewest milliseconds between clicks on average over a game, 25 clicks a
+	 * second kept up from the first click to the last. A single pair of clicks
+	 * may be closer, as clicks queued while the game is busy are recorded together.
+	 */
+	private static final int MIN_MILLIS_PER_EVENT = 40;
+
+	/**
+	 * Verify a score by replaying its recording
+	 * @param levelArray int[] representing number of rows, columns and mines of the score's level
+	 * @param level Level of the score
+	 * @param time int representing the time of the score in seconds
+	 * @param recording GameRecording of the game the score was set in, may be null
+	 * @return boolean true if the recording wins the level in no less than the time
+	 * with a believable time between its clicks
+	 */
+	public static boolean verify(int[] levelArray, Level level, int time, GameRecording recording) {
+		if(recording == null || recording.getLevel() != level
+				|| recording.getRows() != levelArray[0] || recording.getCols() != levelArray[1]
+				|| !isMineCountOf(recording, levelArray[2])) {
+			return false;
+		}
+		try {
+			// play up to the end of the game, the time is taken at the winning event
+			GameReplay replay = new GameReplay(recording);
+			long firstDelay = replay.getNextDelayMillis();
+			GameState state = GameState.PLAYING;
+			while (state == GameState.PLAYING && replay.hasNext()) {
+				state = replay.playNext();
+			}
+			// the time before the first click is waiting for the game, not clicking
+			long clickingMillis = replay.getElapsedMillis() - firstDelay;
+			return state == GameState.WON && time >= replay.getElapsedMillis() / 1000 - TIME_TOLERANCE
+					&& clickingMillis >= (long) MIN_MILLIS_PER_EVENT * (replay.getEventsPlayed() - 1);
+		} catch (RuntimeException e) {
+			// a recording that cannot be decoded or replayed is not verified
+			return false;
+		}
+	}
+
+	/*
+	 * Check the recording has the level's number of mines, or the most that fit
+	 * outside the safe area if the level asks for more, as populating does
+	 */
+	private static boolean isMineCountOf(GameRecording recording, int mines) {
+		if(recording.getMines() == mines) {
+			return true;
+		}
+		long totalTiles = (long) recording.getRows() * recording.getCols();
+		int side = recording.isSafeZone() ? 3 : 1;
+		long safeTiles = (long) Math.min(side, recording.getRows()) * Math.min(side, recording.getCols());
+		return recording.getMines() < mines && recording.getMines() == totalTiles - safeTiles;
+	}
+}
@@ -0,0 +1,259 @@
+package model;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * TimeSketch Class to keep statistics of completion times as games are won,
+ * without keeping the times themselves. The count, total, fastest and slowest
+ * times are kept exactly. The times are counted in a fixed set of buckets, one
+ * for each time under 64 seconds and then 32 for each doubling of the time, so
+ * percentiles are within about 3% of the true time and the sketch is the same
+ * size however many games it holds. Two sketches are merged by adding their
+ * buckets, so the sketches of several levels can be combined.
+ *
+ * @author Daniel Newsom
+ * @version 3.0
+ *
+ */
+public class TimeSketch {
+
+	/*
+	 * Times below LINEAR_LIMIT have a bucket each, above it each doubling
+	 * of the time is split into SUB_BUCKETS buckets up to MAX_TIME
+	 */
+	private static final int SUB_BUCKET_BITS = 5;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int LINEAR_LIMIT = SUB_BUCKETS * 2;
+	private static final int MAX_TIME = (1 << 16) - 1;
+	public static final int BUCKETS = LINEAR_LIMIT
+			+ (31 - Integer.numberOfLeadingZeros(MAX_TIME) - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+	private long[] counts = new long[BUCKETS];
+	private long count = 0;
+	private long total = 0;
+	private int min = Integer.MAX_VALUE;
+	private int max = Integer.MIN_VALUE;
+
+	/**
+	 * Add a completion time
+	 * @param time int representing the time in seconds
+	 */
+	public void add(int time) {
+		time = Math.max(0, Math.min(MAX_TIME, time));
+		counts[getBucket(time)]++;
+		count++;
+		total += time;
+		min = Math.min(min, time);
+		max = Math.max(max, time);
+	}
+
+	/**
+	 * Add every time held by another sketch to this one
+	 * @param other TimeSketch to merge into this one
+	 */
+	public void merge(TimeSketch other) {
+		for (int i = 0; i < BUCKETS; i++) {
+			counts[i] += other.counts[i];
+		}
+		count += other.count;
+		total += other.total;
+		min = Math.min(min, other.min);
+		max = Math.max(max, other.max);
+	}
+
+	/**
+	 * Remove every time from the sketch
+	 */
+	public void clear() {
+		Arrays.fill(counts, 0);
+		count = 0;
+		total = 0;
+		min = Integer.MAX_VALUE;
+		max = Integer.MIN_VALUE;
+	}
+
+	/*
+	 * Return the bucket a time is counted in
+	 */
+	private static int getBucket(int time) {
+		if(time < LINEAR_LIMIT) {
+			return time;
+		}
+		int exponent = 31 - Integer.numberOfLeadingZeros(time);
+		int shift = exponent - SUB_BUCKET_BITS;
+		return LINEAR_LIMIT + (shift - 1) * SUB_BUCKETS + ((time >> shift) & (SUB_BUCKETS - 1));
+	}
+
+	/*
+	 * Return the lowest time counted in a bucket
+	 */
+	private static int getBucketStart(int bucket) {
+		if(bucket < LINEAR_LIMIT) {
+			return bucket;
+		}
+		int shift = (bucket - LINEAR_LIMIT) / SUB_BUCKETS + 1;
+		int sub = (bucket - LINEAR_LIMIT) % SUB_BUCKETS;
+		return (SUB_BUCKETS + sub) << shift;
+	}
+
+	/*
+	 * Return the middle of the times counted in a bucket
+	 */
+	private static int getBucketMiddle(int bucket) {
+		int start = getBucketStart(bucket);
+		int end = bucket + 1 < BUCKETS ? getBucketStart(bucket + 1) - 1 : MAX_TIME;
+		return start + (end - start) / 2;
+	}
+
+	/**
+	 * Return the time that the given fraction of times are no slower than
+	 * @param quantile double between 0 and 1, 0.5 for the median
+	 * @return int representing the time in seconds, or 0 if the sketch is empty
+	 */
+	public int getQuantile(double quantile) {
+		if(count == 0) {
+			return 0;
+		}
+		long rank = (long) Math.ceil(Math.max(0, Math.min(1, quantile)) * count);
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += counts[i];
+			if(seen >= Math.max(1, rank)) {
+				return Math.max(min, Math.min(max, getBucketMiddle(i)));
+			}
+		}
+		return max;
+	}
+
+	/**
+	 * Return the number of times in equal ranges between the fastest and slowest time.
+	 * Each bucket of the sketch is counted in the range holding its middle.
+	 * @param bins int representing the number of ranges
+	 * @return long[] representing the count of times in each range
+	 */
+	public long[] getHistogram(int bins) {
+		long[] histogram = new long[bins];
+		if(count == 0) {
+			return histogram;
+		}
+		double width = (max - min + 1) / (double) bins;
+		for (int i = 0; i < BUCKETS; i++) {
+			if(counts[i] != 0) {
+				int time = Math.max(min, Math.min(max, getBucketMiddle(i)));
+				histogram[Math.min(bins - 1, (int) ((time - min) / width))] += counts[i];
+			}
+		}
+		return histogram;
+	}
+
+	/**
+	 * Return the fastest time in a range of the histogram
+	 * @param bins int representing the number of ranges
+	 * @param bin int representing the range
+	 * @return int representing the time in seconds
+	 */
+	public int getHistogramStart(int bins, int bin) {
+		if(count == 0) {
+			return 0;
+		}
+		return min + (int) Math.ceil(bin * (max - min + 1) / (double) bins);
+	}
+
+	/**
+	 * Write the sketch to a buffer, only the buckets holding times are written
+	 * @param buffer ByteBuffer with at least getSize() bytes remaining
+	 */
+	public void writeTo(ByteBuffer buffer) {
+		buffer.putLong(count);
+		buffer.putLong(total);
+		buffer.putInt(min);
+		buffer.putInt(max);
+		buffer.putShort((short) getUsedBuckets());
+		for (int i = 0; i < BUCKETS; i++) {
+			if(counts[i] != 0) {
+				buffer.putShort((short) i);
+				buffer.putLong(counts[i]);
+			}
+		}
+	}
+
+	/**
+	 * Read a sketch written by writeTo
+	 * @param buffer ByteBuffer positioned at the start of the sketch
+	 * @return TimeSketch representing the sketch read
+	 * @throws IllegalArgumentException if the buffer does not hold a valid sketch
+	 */
+	public static TimeSketch readFrom(ByteBuffer buffer) {
+		try {
+			TimeSketch sketch = new TimeSketch();
+			sketch.count = buffer.getLong();
+			sketch.total = buffer.getLong();
+			sketch.min = buffer.getInt();
+			sketch.max = buffer.getInt();
+			int used = buffer.getShort();
+			long counted = 0;
+			for (int i = 0; i < used; i++) {
+				int bucket = buffer.getShort();
+				long bucketCount = buffer.getLong();
+				if(bucket < 0 || bucket >= BUCKETS || bucketCount <= 0) {
+					throw new IllegalArgumentException("Sketch bucket is not valid");
+				}
+				sketch.counts[bucket] += bucketCount;
+				counted += bucketCount;
+			}
+			if(counted != sketch.count || used < 0) {
+				throw new IllegalArgumentException("Sketch count does not match its buckets");
+			}
+			return sketch;
+		} catch (BufferUnderflowException e) {
+			throw new IllegalArgumentException("Sketch is too short");
+		}
+	}
+
+	/*
+	 * Return the number of buckets holding times
+	 */
+	private int getUsedBuckets() {
+		int used = 0;
+		for (long bucketCount : counts) {
+			if(bucketCount != 0) {
+				used++;
+			}
+		}
+		return used;
+	}
+
+	/*
+	 * Getters
+	 */
+
+	/**
+	 * Returns the number of bytes writeTo writes
+	 * @return int representing the size of the sketch
+	 */
+	public int getSize() {
+		return 8 + 8 + 4 + 4 + 2 + getUsedBuckets() * (2 + 8);
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Returns the mean of the times added
+	 * @return double representing the mean time in seconds, or 0 if the sketch is empty
+	 */
+	public double getMean() {
+		return count == 0 ? 0 : total / (double) count;
+	}
+
+	public int getMin() {
+		return count == 0 ? 0 : min;
+	}
+
+	public int getMax() {
+		return count == 0 ? 0 : max;
+	}
+}
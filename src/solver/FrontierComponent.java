@@ -0,0 +1,228 @@
+package solver;
+
+import java.util.Arrays;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * FrontierComponent Class to hold one connected group of unknown frontier
+ * tiles and the constraints between them. Every valid way of placing mines
+ * on the group is enumerated, counting the solutions for each number of mines
+ * and how often each tile is mined. Runs as a fork-join task so separate
+ * components are enumerated in parallel.
+ *
+ * If the component is too large, or the node budget or deadline is reached,
+ * the enumeration is abandoned and each tile is given an approximate
+ * probability from the constraints around it instead.
+ *
+ * @author Daniel Newsom
+ * @version 3.0
+ *
+ */
+class FrontierComponent extends RecursiveAction {
+
+	private static final long serialVersionUID = 1L;
+
+	/*
+	 * Components larger than this are always approximated
+	 */
+	static final int MAX_EXACT_TILES = 256;
+
+	/*
+	 * Number of assignments tried between checks of the deadline
+	 */
+	private static final int DEADLINE_CHECK = 4096;
+
+	private static final byte UNASSIGNED = -1;
+
+	private int[] tiles;
+	private int[] tileConstraintStart;
+	private int[] tileConstraints;
+	private int[] constraintMines;
+	private int[] constraintUnknown;
+	private long nodeBudget;
+	private long deadline;
+
+	private boolean exact;
+	private double[] solutions;
+	private double[] minedSolutions;
+	private double[] approximation;
+	private double[] approximateSolutions;
+
+	/**
+	 * Constructor for the FrontierComponent class
+	 * @param tiles int[] containing the board indexes of the tiles in the order to enumerate them
+	 * @param tileConstraintStart int[] where tile i's constraints are from entry
+	 * tileConstraintStart[i] to tileConstraintStart[i + 1] of tileConstraints
+	 * @param tileConstraints int[] containing the constraints of each tile
+	 * @param constraintMines int[] containing the mines still to be placed for each constraint
+	 * @param constraintUnknown int[] containing the number of tiles in each constraint
+	 * @param nodeBudget long representing the maximum number of assignments to try
+	 * @param deadline long representing the System.nanoTime() to give up at
+	 */
+	FrontierComponent(int[] tiles, int[] tileConstraintStart, int[] tileConstraints,
+			int[] constraintMines, int[] constraintUnknown, long nodeBudget, long deadline) {
+		this.tiles = tiles;
+		this.tileConstraintStart = tileConstraintStart;
+		this.tileConstraints = tileConstraints;
+		this.constraintMines = constraintMines;
+		this.constraintUnknown = constraintUnknown;
+		this.nodeBudget = nodeBudget;
+		this.deadline = deadline;
+	}
+
+	@Override
+	protected void compute() {
+		exact = tiles.length <= MAX_EXACT_TILES && enumerate();
+		if (!exact) {
+			approximate();
+		}
+	}
+
+	/*
+	 * Backtrack through every assignment of mines to the tiles,
+	 * returning false if the budget or deadline was reached
+	 */
+	private boolean enumerate() {
+		int n = tiles.length;
+		int[] mines = constraintMines.clone();
+		int[] unknown = constraintUnknown.clone();
+		byte[] value = new byte[n];
+		byte[] nextTry = new byte[n];
+		Arrays.fill(value, UNASSIGNED);
+		solutions = new double[n + 1];
+		minedSolutions = new double[n * (n + 1)];
+		int minesAssigned = 0;
+		long nodes = 0;
+
+		int depth = 0;
+		while (depth >= 0) {
+			if (depth == n) {
+				// every tile assigned without breaking a constraint, record the solution
+				solutions[minesAssigned]++;
+				for (int i = 0; i < n; i++) {
+					if (value[i] == 1) {
+						minedSolutions[i * (n + 1) + minesAssigned]++;
+					}
+				}
+				depth--;
+				continue;
+			}
+			if (value[depth] != UNASSIGNED) {
+				minesAssigned -= value[depth];
+				unassign(depth, value[depth], mines, unknown);
+				value[depth] = UNASSIGNED;
+			}
+			if (nextTry[depth] == 2) {
+				nextTry[depth] = 0;
+				depth--;
+				continue;
+			}
+			byte tryValue = nextTry[depth]++;
+			if (++nodes > nodeBudget || (nodes % DEADLINE_CHECK == 0 && System.nanoTime() > deadline)) {
+				return false;
+			}
+			if (assign(depth, tryValue, mines, unknown)) {
+				value[depth] = tryValue;
+				minesAssigned += tryValue;
+				depth++;
+			}
+		}
+		return true;
+	}
+
+	/*
+	 * Assign a tile as safe or mined, undoing it and
+	 * returning false if any of its constraints can no longer be met
+	 */
+	private boolean assign(int tile, int mined, int[] mines, int[] unknown) {
+		boolean valid = true;
+		for (int i = tileConstraintStart[tile]; i < tileConstraintStart[tile + 1]; i++) {
+			int constraint = tileConstraints[i];
+			unknown[constraint]--;
+			mines[constraint] -= mined;
+			if (mines[constraint] < 0 || mines[constraint] > unknown[constraint]) {
+				valid = false;
+			}
+		}
+		if (!valid) {
+			unassign(tile, mined, mines, unknown);
+		}
+		return valid;
+	}
+
+	/*
+	 * Undo the assignment of a tile
+	 */
+	private void unassign(int tile, int mined, int[] mines, int[] unknown) {
+		for (int i = tileConstraintStart[tile]; i < tileConstraintStart[tile + 1]; i++) {
+			int constraint = tileConstraints[i];
+			unknown[constraint]++;
+			mines[constraint] += mined;
+		}
+	}
+
+	/*
+	 * Give each tile the average density of mines still needed by its constraints
+	 */
+	private void approximate() {
+		solutions = null;
+		minedSolutions = null;
+		approximation = new double[tiles.length];
+		for (int tile = 0; tile < tiles.length; tile++) {
+			double total = 0;
+			int count = 0;
+			for (int i = tileConstraintStart[tile]; i < tileConstraintStart[tile + 1]; i++) {
+				int constraint = tileConstraints[i];
+				total += (double) constraintMines[constraint] / constraintUnknown[constraint];
+				count++;
+			}
+			approximation[tile] = count == 0 ? 0 : Math.max(0, Math.min(1, total / count));
+		}
+		approximateSolutions = new double[tiles.length + 1];
+		approximateSolutions[(int) Math.round(getExpectedMines())] = 1;
+	}
+
+	/**
+	 * Return the number of solutions for each number of mines,
+	 * for an approximated component all weight is on the expected number of mines
+	 * @return double[] where entry k is the weight of solutions with k mines
+	 */
+	double[] getSolutions() {
+		return exact ? solutions : approximateSolutions;
+	}
+
+	/**
+	 * Return the weight of solutions with k mines in which a tile is mined
+	 * @param tile int representing the position of the tile in the component
+	 * @param k int representing the number of mines in the component
+	 * @return double representing the weight of solutions with the tile mined
+	 */
+	double getMinedSolutions(int tile, int k) {
+		if (exact) {
+			return minedSolutions[tile * (tiles.length + 1) + k];
+		}
+		return approximation[tile] * approximateSolutions[k];
+	}
+
+	/*
+	 * Return the expected number of mines from the approximation
+	 */
+	private double getExpectedMines() {
+		double expected = 0;
+		for (double probability : approximation) {
+			expected += probability;
+		}
+		return expected;
+	}
+
+	/*
+	 * Getters
+	 */
+	int[] getTiles() {
+		return tiles;
+	}
+
+	boolean isExact() {
+		return exact;
+	}
+}
@@ -0,0 +1,195 @@
+package solver;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import model.BoardGenerator;
+import model.MineField;
+
+/**
+ * NoGuessGenerator Class to find boards that can be cleared from the first
+ * tile stepped on without guessing. Each worker thread populates candidate
+ * boards from new seeds and clears them with the Solver, the first seed whose
+ * board is cleared is used.
+ *
+ * If no candidate is cleared within the time budget the seed of the
+ * candidate that revealed the most tiles is used instead, so the first
+ * step of a game never waits longer than the budget.
+ *
+ * @author Daniel Newsom
+ * @version 3.0
+ *
+ */
+public class NoGuessGenerator implements BoardGenerator {
+
+	public static final long DEFAULT_BUDGET_MILLIS = 1000;
+
+	/*
+	 * Largest minefield worth searching, larger boards take too long
+	 * to verify for a candidate to be cleared within the budget
+	 */
+	public static final int MAX_TILES = 1 << 20;
+
+	private ExecutorService workers;
+	private int threads;
+	private long budgetMillis;
+
+	/*
+	 * Results of the last call to generate
+	 */
+	private long candidates;
+	private long lastMillis;
+	private boolean lastCleared;
+
+	/**
+	 * Constructor for the NoGuessGenerator class using a thread for each processor
+	 * and the default time budget
+	 */
+	public NoGuessGenerator() {
+		this(Runtime.getRuntime().availableProcessors(), DEFAULT_BUDGET_MILLIS);
+	}
+
+	/**
+	 * Constructor for the NoGuessGenerator class
+	 * @param threads int representing the number of boards to generate and verify at once
+	 * @param budgetMillis long representing the longest time to search for a board
+	 */
+	public NoGuessGenerator(int threads, long budgetMillis) {
+		this.threads = Math.max(1, threads);
+		this.budgetMillis = budgetMillis;
+		workers = Executors.newFixedThreadPool(this.threads, r->{
+			Thread thread = new Thread(r, "no-guess-generator");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	@Override
+	public long findSeed(MineField minefield, int row, int col) {
+		int[] levelArray = {minefield.getRows(), minefield.getCols(), minefield.getNumberOfMines()};
+		return generate(levelArray, minefield.isSafeZone(), row, col);
+	}
+
+	/**
+	 * Search for a seed whose board can be cleared from the top left tile without guessing
+	 * @param levelArray int[] representing number of rows, columns and mines
+	 * @return long representing the seed to populate the minefield with
+	 */
+	public long generate(int[] levelArray) {
+		return generate(levelArray, false, 0, 0);
+	}
+
+	/**
+	 * Search for a seed whose board can be cleared from a tile without guessing
+	 * @param levelArray int[] representing number of rows, columns and mines
+	 * @param safeZone boolean true if the tiles around the first tile are also free of mines
+	 * @param row int representing the row of the first tile
+	 * @param col int representing the col of the first tile
+	 * @return long representing the seed for MineField.populate(seed, row, col)
+	 */
+	public synchronized long generate(int[] levelArray, boolean safeZone, int row, int col) {
+		long start = System.nanoTime();
+		CompletableFuture<Long> found = new CompletableFuture<Long>();
+		AtomicBoolean stop = new AtomicBoolean(false);
+		AtomicLong tried = new AtomicLong();
+		long[] best = {MineField.newSeed(), -1};
+
+		for (int i = 0; i < threads; i++) {
+			workers.execute(()->{
+				while (!stop.get()) {
+					long seed = MineField.newSeed();
+					MineField minefield = new MineField(levelArray);
+					minefield.setSafeZone(safeZone);
+					minefield.populate(seed, row, col);
+					boolean cleared = new Solver(minefield).clearFrom(row, col);
+					tried.incrementAndGet();
+					if (cleared) {
+						found.complete(seed);
+						return;
+					}
+					synchronized (best) {
+						if (minefield.getTilesRevealed() > best[1]) {
+							best[0] = seed;
+							best[1] = minefield.getTilesRevealed();
+						}
+					}
+				}
+			});
+		}
+
+		long seed;
+		try {
+			seed = found.get(budgetMillis, TimeUnit.MILLISECONDS);
+			lastCleared = true;
+		} catch (TimeoutException | ExecutionException e) {
+			synchronized (best) {
+				seed = best[0];
+			}
+			lastCleared = false;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			synchronized (best) {
+				seed = best[0];
+			}
+			lastCleared = false;
+		}
+		stop.set(true);
+
+		candidates = tried.get();
+		lastMillis = (System.nanoTime() - start) / 1000000L;
+		return seed;
+	}
+
+	/**
+	 * Stop the worker threads, the generator cannot be used afterwards
+	 */
+	public void shutdown() {
+		workers.shutdownNow();
+	}
+
+	/*
+	 * Getters and setters
+	 */
+	public long getBudgetMillis() {
+		return budgetMillis;
+	}
+
+	public void setBudgetMillis(long budgetMillis) {
+		this.budgetMillis = budgetMillis;
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * Returns the number of candidate boards verified by the last call to generate
+	 * @return long representing the number of candidates
+	 */
+	public long getCandidates() {
+		return candidates;
+	}
+
+	/**
+	 * Returns the time taken by the last call to generate
+	 * @return long representing the time in milliseconds
+	 */
+	public long getLastMillis() {
+		return lastMillis;
+	}
+
+	/**
+	 * Returns whether the last board generated can be cleared without guessing,
+	 * false if the time budget ran out first
+	 * @return boolean true if the board can be cleared
+	 */
+	public boolean isLastCleared() {
+		return lastCleared;
+	}
+}
@@ -0,0 +1,444 @@
+package solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import model.MineBoard;
+import model.MineField;
+
+/**
+ * ProbabilityCalculator Class to work out the chance that each unrevealed
+ * tile of a minefield is a mine from the revealed and flagged tiles.
+ *
+ * The unknown tiles next to a revealed tile form the frontier. The frontier
+ * is split into components that share no constraints and every valid way of
+ * placing mines on each component is enumerated in parallel on a fork-join pool.
+ * The components are then combined, weighting each total number of frontier
+ * mines by the number of ways the remaining mines can be placed on the
+ * unconstrained interior tiles.
+ *
+ * Components that are too large or take too long are approximated, in which
+ * case isExact() returns false after calculate().
+ *
+ * @author Daniel Newsom
+ * @version 3.0
+ *
+ */
+public class ProbabilityCalculator {
+
+	/*
+	 * Default limits on the enumeration of each component
+	 */
+	public static final long DEFAULT_TIMEOUT_MILLIS = 2000;
+	public static final long DEFAULT_NODE_BUDGET = 50000000L;
+
+	/*
+	 * The combination keeps one weight per number of frontier mines for every
+	 * component, above this many weights the components are treated as independent
+	 */
+	private static final long MAX_COMBINATION_WEIGHTS = 20000000L;
+
+	private static final int NOT_FRONTIER = -1;
+
+	private MineField minefield;
+	private MineBoard board;
+	private ForkJoinPool pool;
+	private long timeoutMillis;
+	private long nodeBudget;
+	private boolean exact;
+
+	/**
+	 * Constructor for the ProbabilityCalculator class using the common
+	 * fork-join pool and the default limits
+	 * @param minefield MineField to calculate the probabilities for
+	 */
+	public ProbabilityCalculator(MineField minefield) {
+		this(minefield, ForkJoinPool.commonPool(), DEFAULT_TIMEOUT_MILLIS, DEFAULT_NODE_BUDGET);
+	}
+
+	/**
+	 * Constructor for the ProbabilityCalculator class
+	 * @param minefield MineField to calculate the probabilities for
+	 * @param pool ForkJoinPool to enumerate the components on
+	 * @param timeoutMillis long representing the time allowed before components are approximated
+	 * @param nodeBudget long representing the assignments allowed for each component before it is approximated
+	 */
+	public ProbabilityCalculator(MineField minefield, ForkJoinPool pool, long timeoutMillis, long nodeBudget) {
+		this.minefield = minefield;
+		this.board = minefield.getBoard();
+		this.pool = pool;
+		this.timeoutMillis = timeoutMillis;
+		this.nodeBudget = nodeBudget;
+	}
+
+	/**
+	 * Calculate the probability of every tile being a mine.
+	 * Revealed tiles are 0 and flagged tiles are 1.
+	 * @return double[] containing the probability for each tile index
+	 */
+	public double[] calculate() {
+		int totalTiles = board.getTotalTiles();
+		double[] probabilities = new double[totalTiles];
+		int[] component = new int[totalTiles];
+		Arrays.fill(component, NOT_FRONTIER);
+
+		int unknownMines = minefield.getNumberOfMines();
+		int interior = 0;
+		for (int index = 0; index < totalTiles; index++) {
+			if (board.isRevealed(index)) {
+				continue;
+			}
+			if (board.isMarked(index)) {
+				probabilities[index] = 1;
+				unknownMines--;
+			}
+			else if (!hasConstraint(index)) {
+				interior++;
+			}
+		}
+		unknownMines = Math.max(0, unknownMines);
+
+		long deadline = System.nanoTime() + timeoutMillis * 1000000L;
+		final List<FrontierComponent> components = buildComponents(component, deadline);
+		pool.invoke(new RecursiveAction() {
+			private static final long serialVersionUID = 1L;
+			@Override
+			protected void compute() {
+				invokeAll(components);
+			}
+		});
+
+		exact = true;
+		for (FrontierComponent frontierComponent : components) {
+			exact &= frontierComponent.isExact();
+		}
+
+		double interiorProbability = combine(components, unknownMines, interior, probabilities);
+		for (int index = 0; index < totalTiles; index++) {
+			if (!board.isRevealed(index) && !board.isMarked(index) && component[index] == NOT_FRONTIER) {
+				probabilities[index] = interiorProbability;
+			}
+		}
+		return probabilities;
+	}
+
+	/*
+	 * Group the frontier tiles into components joined by shared constraints,
+	 * recording the component of each frontier tile
+	 */
+	private List<FrontierComponent> buildComponents(int[] component, long deadline) {
+		int rows = board.getRows();
+		int cols = board.getCols();
+		int totalTiles = board.getTotalTiles();
+		List<FrontierComponent> components = new ArrayList<FrontierComponent>();
+		int[] queue = new int[totalTiles];
+		int[] tiles = new int[totalTiles];
+		int[] localIndex = new int[totalTiles];
+		int[] constraints = new int[totalTiles];
+		boolean[] constraintSeen = new boolean[totalTiles];
+
+		for (int start = 0; start < totalTiles; start++) {
+			if (component[start] != NOT_FRONTIER || !isUnknown(start) || !hasConstraint(start)) {
+				continue;
+			}
+			/*
+			 * Breadth first search from tile to constraint to tile so neighbouring
+			 * tiles are enumerated close together and constraints close early
+			 */
+			int id = components.size();
+			int tileCount = 0;
+			int constraintCount = 0;
+			int head = 0;
+			int tail = 0;
+			component[start] = id;
+			queue[tail++] = start;
+			while (head < tail) {
+				int tile = queue[head++];
+				localIndex[tile] = tileCount;
+				tiles[tileCount++] = tile;
+				int row = tile / cols;
+				int col = tile % cols;
+				for (int r = Math.max(0, row - 1); r <= Math.min(rows - 1, row + 1); r++) {
+					for (int c = Math.max(0, col - 1); c <= Math.min(cols - 1, col + 1); c++) {
+						int constraint = board.getIndex(r, c);
+						if (!isConstraint(constraint) || constraintSeen[constraint]) {
+							continue;
+						}
+						constraintSeen[constraint] = true;
+						constraints[constraintCount++] = constraint;
+						for (int r2 = Math.max(0, r - 1); r2 <= Math.min(rows - 1, r + 1); r2++) {
+							for (int c2 = Math.max(0, c - 1); c2 <= Math.min(cols - 1, c + 1); c2++) {
+								int other = board.getIndex(r2, c2);
+								if (isUnknown(other) && component[other] == NOT_FRONTIER) {
+									component[other] = id;
+									queue[tail++] = other;
+								}
+							}
+						}
+					}
+				}
+			}
+			components.add(createComponent(Arrays.copyOf(tiles, tileCount),
+					Arrays.copyOf(constraints, constraintCount), localIndex, deadline));
+		}
+		return components;
+	}
+
+	/*
+	 * Build the constraint lists of a component from its tiles and constraints
+	 */
+	private FrontierComponent createComponent(int[] tiles, int[] constraints, int[] localIndex, long deadline) {
+		int rows = board.getRows();
+		int cols = board.getCols();
+		int[] constraintMines = new int[constraints.length];
+		int[] constraintUnknown = new int[constraints.length];
+		int[] tileConstraintCount = new int[tiles.length + 1];
+		List<int[]> links = new ArrayList<int[]>();
+
+		for (int i = 0; i < constraints.length; i++) {
+			int row = constraints[i] / cols;
+			int col = constraints[i] % cols;
+			int mines = board.getMinedNeighbours(constraints[i]);
+			for (int r = Math.max(0, row - 1); r <= Math.min(rows - 1, row + 1); r++) {
+				for (int c = Math.max(0, col - 1); c <= Math.min(cols - 1, col + 1); c++) {
+					int index = board.getIndex(r, c);
+					if (board.isRevealed(index)) {
+						continue;
+					}
+					if (board.isMarked(index)) {
+						mines--;
+					}
+					else {
+						constraintUnknown[i]++;
+						tileConstraintCount[localIndex[index] + 1]++;
+						links.add(new int[] {localIndex[index], i});
+					}
+				}
+			}
+			constraintMines[i] = mines;
+		}
+
+		int[] tileConstraintStart = new int[tiles.length + 1];
+		for (int i = 0; i < tiles.length; i++) {
+			tileConstraintStart[i + 1] = tileConstraintStart[i] + tileConstraintCount[i + 1];
+		}
+		int[] next = Arrays.copyOf(tileConstraintStart, tiles.length);
+		int[] tileConstraints = new int[links.size()];
+		for (int[] link : links) {
+			tileConstraints[next[link[0]]++] = link[1];
+		}
+		return new FrontierComponent(tiles, tileConstraintStart, tileConstraints,
+				constraintMines, constraintUnknown, nodeBudget, deadline);
+	}
+
+	/*
+	 * Combine the components into the probability of each frontier tile,
+	 * returning the probability of each interior tile.
+	 *
+	 * With the weight of each component's solutions for k mines as D_i(k), and
+	 * B(t) the ways to place the rest of the mines on the interior when the
+	 * frontier holds t mines, the forward weights P_i are the convolution of
+	 * the components before i and the backward weights R_i(t) are the weight
+	 * of completing the board from component i with t mines already placed.
+	 * Each component then sees H_i(k), the sum over t of P_i(t) R_i+1(t + k).
+	 * Every vector is rescaled as it goes, the scale cancels when a component's
+	 * mined weight is divided by its total weight.
+	 */
+	private double combine(List<FrontierComponent> components, int mines, int interior, double[] probabilities) {
+		int count = components.size();
+		int frontierTiles = 0;
+		for (FrontierComponent frontierComponent : components) {
+			frontierTiles += frontierComponent.getTiles().length;
+		}
+		int maxFrontierMines = Math.min(mines, frontierTiles);
+		double[] interiorWeights = interiorWeights(mines, interior, maxFrontierMines);
+
+		if ((long) (count + 1) * (maxFrontierMines + 1) > MAX_COMBINATION_WEIGHTS) {
+			exact = false;
+			return combineIndependently(components, mines, interior, probabilities);
+		}
+
+		double[][] backward = new double[count + 1][];
+		backward[count] = interiorWeights;
+		for (int i = count - 1; i >= 0; i--) {
+			double[] solutions = components.get(i).getSolutions();
+			double[] weights = new double[maxFrontierMines + 1];
+			for (int t = 0; t <= maxFrontierMines; t++) {
+				for (int k = 0; k < solutions.length && t + k <= maxFrontierMines; k++) {
+					weights[t] += solutions[k] * backward[i + 1][t + k];
+				}
+			}
+			backward[i] = rescale(weights);
+		}
+
+		double[] forward = new double[maxFrontierMines + 1];
+		forward[0] = 1;
+		for (int i = 0; i < count; i++) {
+			FrontierComponent frontierComponent = components.get(i);
+			double[] solutions = frontierComponent.getSolutions();
+			double[] completion = new double[solutions.length];
+			for (int k = 0; k < solutions.length; k++) {
+				for (int t = 0; t + k <= maxFrontierMines; t++) {
+					completion[k] += forward[t] * backward[i + 1][t + k];
+				}
+			}
+			setComponentProbabilities(frontierComponent, completion, probabilities);
+
+			double[] weights = new double[maxFrontierMines + 1];
+			for (int t = 0; t <= maxFrontierMines; t++) {
+				if (forward[t] == 0) {
+					continue;
+				}
+				for (int k = 0; k < solutions.length && t + k <= maxFrontierMines; k++) {
+					weights[t + k] += forward[t] * solutions[k];
+				}
+			}
+			forward = rescale(weights);
+			backward[i + 1] = null;
+		}
+
+		return interiorProbability(forward, interiorWeights, mines, interior);
+	}
+
+	/*
+	 * Fallback when there are too many components to combine exactly, each component
+	 * is weighted by the interior on its own and the interior takes the expected remainder
+	 */
+	private double combineIndependently(List<FrontierComponent> components, int mines, int interior, double[] probabilities) {
+		double expectedFrontierMines = 0;
+		for (FrontierComponent frontierComponent : components) {
+			double[] solutions = frontierComponent.getSolutions();
+			double[] completion = new double[solutions.length];
+			Arrays.fill(completion, 1);
+			expectedFrontierMines += setComponentProbabilities(frontierComponent, completion, probabilities);
+		}
+		if (interior == 0) {
+			return 0;
+		}
+		return Math.max(0, Math.min(1, (mines - expectedFrontierMines) / interior));
+	}
+
+	/*
+	 * Set the probability of each tile of a component from the weight of
+	 * completing the board for each number of mines in the component,
+	 * returning the expected number of mines in the component
+	 */
+	private double setComponentProbabilities(FrontierComponent frontierComponent, double[] completion, double[] probabilities) {
+		double[] solutions = frontierComponent.getSolutions();
+		int[] tiles = frontierComponent.getTiles();
+		double total = 0;
+		for (int k = 0; k < solutions.length; k++) {
+			total += solutions[k] * completion[k];
+		}
+		double expected = 0;
+		for (int tile = 0; tile < tiles.length; tile++) {
+			double mined = 0;
+			for (int k = 0; k < solutions.length; k++) {
+				mined += frontierComponent.getMinedSolutions(tile, k) * completion[k];
+			}
+			probabilities[tiles[tile]] = total == 0 ? 0 : mined / total;
+			expected += probabilities[tiles[tile]];
+		}
+		return expected;
+	}
+
+	/*
+	 * Return the weight B(t) of placing the remaining mines on the interior for each number
+	 * of frontier mines t. Uses C(n, m - t - 1) / C(n, m - t) = (m - t) / (n - m + t + 1)
+	 * in log space so large boards do not overflow.
+	 */
+	private static double[] interiorWeights(int mines, int interior, int maxFrontierMines) {
+		double[] weights = new double[maxFrontierMines + 1];
+		int first = Math.max(0, mines - interior);
+		if (first > maxFrontierMines) {
+			return weights;
+		}
+		double[] logWeights = new double[maxFrontierMines + 1];
+		double max = 0;
+		for (int t = first + 1; t <= maxFrontierMines; t++) {
+			logWeights[t] = logWeights[t - 1] + Math.log(mines - t + 1) - Math.log(interior - mines + t);
+			max = Math.max(max, logWeights[t]);
+		}
+		for (int t = first; t <= maxFrontierMines; t++) {
+			weights[t] = Math.exp(logWeights[t] - max);
+		}
+		return weights;
+	}
+
+	/*
+	 * Return the probability of an interior tile being a mine, the expected
+	 * share of the mines not on the frontier
+	 */
+	private static double interiorProbability(double[] frontier, double[] interiorWeights, int mines, int interior) {
+		if (interior == 0) {
+			return 0;
+		}
+		double total = 0;
+		double mined = 0;
+		for (int t = 0; t < frontier.length; t++) {
+			double weight = frontier[t] * interiorWeights[t];
+			total += weight;
+			mined += weight * (mines - t) / interior;
+		}
+		return total == 0 ? 0 : mined / total;
+	}
+
+	/*
+	 * Scale a vector of weights so its largest entry is 1
+	 */
+	private static double[] rescale(double[] weights) {
+		double max = 0;
+		for (double weight : weights) {
+			max = Math.max(max, weight);
+		}
+		if (max > 0) {
+			for (int i = 0; i < weights.length; i++) {
+				weights[i] /= max;
+			}
+		}
+		return weights;
+	}
+
+	/*
+	 * A tile is unknown if it is neither revealed nor flagged
+	 */
+	private boolean isUnknown(int index) {
+		return !board.isRevealed(index) && !board.isMarked(index);
+	}
+
+	/*
+	 * A revealed tile that is not mined constrains its neighbours
+	 */
+	private boolean isConstraint(int index) {
+		return board.isRevealed(index) && !board.isMined(index);
+	}
+
+	/*
+	 * Return true if an unknown tile is next to a revealed tile
+	 */
+	private boolean hasConstraint(int index) {
+		int rows = board.getRows();
+		int cols = board.getCols();
+		int row = index / cols;
+		int col = index % cols;
+		for (int r = Math.max(0, row - 1); r <= Math.min(rows - 1, row + 1); r++) {
+			for (int c = Math.max(0, col - 1); c <= Math.min(cols - 1, col + 1); c++) {
+				if (isConstraint(board.getIndex(r, c))) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns true if every component was enumerated exactly by the last calculate()
+	 * @return boolean true if the probabilities are exact
+	 */
+	public boolean isExact() {
+		return exact;
+	}
+}
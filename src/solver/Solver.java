@@ -0,0 +1,346 @@
+package solver;
+
+import model.MineBoard;
+import model.MineField;
+
+/**
+ * Solver Class to deduce which tiles of a minefield are certainly safe
+ * and which are certainly mined from the revealed and flagged tiles.
+ *
+ * Every revealed tile is a constraint, the number of mines among its
+ * unknown neighbours. A constraint is solved on its own when none or all of
+ * its unknown neighbours must be mines, and against every nearby constraint
+ * whose unknown neighbours are a subset or superset of its own.
+ * The solver is incremental, only the constraints next to a tile whose state
+ * has changed are examined again.
+ *
+ * @author Daniel Newsom
+ * @version 3.0
+ *
+ */
+public class Solver {
+
+	/*
+	 * Bit masks for the state the solver keeps for each tile
+	 */
+	private static final int SAFE = 0x01;
+	private static final int MINE = 0x02;
+	private static final int QUEUED = 0x04;
+
+	/*
+	 * Unknown neighbours are held as bits of a 7x7 window centred on the
+	 * constraint being examined, which covers every constraint sharing a neighbour
+	 */
+	private static final int WINDOW = 7;
+	private static final int WINDOW_CENTRE = 3;
+
+	private MineField minefield;
+	private MineBoard board;
+	private int rows;
+	private int cols;
+	private byte[] knowledge;
+	private int[] queue;
+	private int head = 0;
+	private int queued = 0;
+	private int[] safeTiles;
+	private int safeCount = 0;
+	private int[] mineTiles;
+	private int mineCount = 0;
+	private int maskMines;
+
+	/**
+	 * Constructor for the Solver Class. Every revealed tile is queued to be
+	 * examined and every flagged tile is treated as a mine.
+	 * @param minefield MineField to solve
+	 */
+	public Solver(MineField minefield) {
+		this.minefield = minefield;
+		this.board = minefield.getBoard();
+		this.rows = board.getRows();
+		this.cols = board.getCols();
+		int totalTiles = board.getTotalTiles();
+		knowledge = new byte[totalTiles];
+		queue = new int[totalTiles];
+		safeTiles = new int[totalTiles];
+		mineTiles = new int[totalTiles];
+
+		for (int index = 0; index < totalTiles; index++) {
+			if (board.isMarked(index) && !board.isRevealed(index)) {
+				knowledge[index] = MINE;
+			}
+			enqueue(index);
+		}
+	}
+
+	/**
+	 * Examine the queued constraints until no more can be deduced
+	 * @return int representing the number of new tiles deduced
+	 */
+	public int solve() {
+		int deduced = safeCount + mineCount;
+		while (queued > 0) {
+			int index = queue[head];
+			head = (head + 1) % queue.length;
+			queued--;
+			knowledge[index] &= ~QUEUED;
+			examine(index);
+		}
+		return safeCount + mineCount - deduced;
+	}
+
+	/**
+	 * Tell the solver a tile has been revealed so the
+	 * constraints around it are examined again
+	 * @param index int representing the index of the revealed tile
+	 */
+	public void tileRevealed(int index) {
+		enqueue(index);
+		enqueueNeighbours(index);
+	}
+
+	/**
+	 * Step on a tile and then keep stepping on every tile deduced
+	 * to be safe until nothing more can be deduced.
+	 * Uses the changed tiles of the minefield to find the revealed tiles,
+	 * so the minefield should not be displayed at the same time.
+	 * @param row int representing the row to start from
+	 * @param col int representing the col to start from
+	 * @return boolean true if every tile that is not mined has been revealed
+	 */
+	public boolean clearFrom(int row, int col) {
+		minefield.clearChangedTiles();
+		if (!minefield.stepOnTile(row, col)) {
+			return false;
+		}
+		int next = safeCount;
+		boolean progress = true;
+		while (progress) {
+			// pass every tile revealed since the last pass to the solver,
+			// or every revealed tile when too many changed to be listed
+			if (minefield.isAllChanged()) {
+				for (int index = 0; index < board.getTotalTiles(); index++) {
+					if (board.isRevealed(index)) {
+						tileRevealed(index);
+					}
+				}
+			} else {
+				int[] changedTiles = minefield.getChangedTiles();
+				for (int i = 0; i < minefield.getChangedCount(); i++) {
+					tileRevealed(changedTiles[i]);
+				}
+			}
+			minefield.clearChangedTiles();
+			solve();
+
+			progress = next < safeCount;
+			while (next < safeCount) {
+				int index = safeTiles[next++];
+				if (!minefield.stepOnTile(index / cols, index % cols)) {
+					return false;
+				}
+			}
+		}
+		return minefield.getTilesRevealed() == board.getTotalTiles() - minefield.getMinesPlaced();
+	}
+
+	/*
+	 * Examine one constraint on its own and then against its neighbouring constraints.
+	 * Stops at the first deduction, the constraint is queued again by the deduction.
+	 */
+	private void examine(int index) {
+		if (!isConstraint(index)) {
+			return;
+		}
+		int row = index / cols;
+		int col = index % cols;
+		long own = unknownMask(row, col, row, col);
+		if (own == 0) {
+			return;
+		}
+		int ownMines = board.getMinedNeighbours(index) - maskMines;
+		int unknown = Long.bitCount(own);
+
+		if (ownMines == 0) {
+			markMask(own, row, col, SAFE);
+			return;
+		}
+		if (ownMines == unknown) {
+			markMask(own, row, col, MINE);
+			return;
+		}
+
+		/*
+		 * Compare with every constraint close enough to share an unknown neighbour
+		 */
+		for (int r = Math.max(0, row - 2); r <= Math.min(rows - 1, row + 2); r++) {
+			for (int c = Math.max(0, col - 2); c <= Math.min(cols - 1, col + 2); c++) {
+				int other = board.getIndex(r, c);
+				if (other == index || !isConstraint(other)) {
+					continue;
+				}
+				long theirs = unknownMask(r, c, row, col);
+				if (theirs == 0) {
+					continue;
+				}
+				int theirMines = board.getMinedNeighbours(other) - maskMines;
+				if ((own & ~theirs) == 0) {
+					if (applySubset(own, ownMines, theirs, theirMines, row, col)) {
+						return;
+					}
+				}
+				else if ((theirs & ~own) == 0) {
+					if (applySubset(theirs, theirMines, own, ownMines, row, col)) {
+						return;
+					}
+				}
+			}
+		}
+	}
+
+	/*
+	 * The tiles in the superset but not the subset hold the difference in mines,
+	 * if that is none or all of them they are all safe or all mined.
+	 */
+	private boolean applySubset(long subset, int subsetMines, long superset, int supersetMines, int row, int col) {
+		long difference = superset & ~subset;
+		if (difference == 0) {
+			return false;
+		}
+		int differenceMines = supersetMines - subsetMines;
+		if (differenceMines == 0) {
+			markMask(difference, row, col, SAFE);
+			return true;
+		}
+		if (differenceMines == Long.bitCount(difference)) {
+			markMask(difference, row, col, MINE);
+			return true;
+		}
+		return false;
+	}
+
+	/*
+	 * Return the unknown neighbours of a tile as bits of the window centred on
+	 * the origin tile and set maskMines to the number of neighbours known to be mines
+	 */
+	private long unknownMask(int row, int col, int originRow, int originCol) {
+		long mask = 0;
+		maskMines = 0;
+		for (int r = Math.max(0, row - 1); r <= Math.min(rows - 1, row + 1); r++) {
+			for (int c = Math.max(0, col - 1); c <= Math.min(cols - 1, col + 1); c++) {
+				int index = board.getIndex(r, c);
+				if ((knowledge[index] & MINE) != 0) {
+					maskMines++;
+				}
+				else if (isUnknown(index)) {
+					mask |= 1L << ((r - originRow + WINDOW_CENTRE) * WINDOW + (c - originCol + WINDOW_CENTRE));
+				}
+			}
+		}
+		return mask;
+	}
+
+	/*
+	 * Record every tile in a window mask as safe or mined
+	 */
+	private void markMask(long mask, int originRow, int originCol, int value) {
+		while (mask != 0) {
+			int bit = Long.numberOfTrailingZeros(mask);
+			mask &= mask - 1;
+			int row = originRow + bit / WINDOW - WINDOW_CENTRE;
+			int col = originCol + bit % WINDOW - WINDOW_CENTRE;
+			setKnown(board.getIndex(row, col), value);
+		}
+	}
+
+	/*
+	 * Record a deduced tile and queue the constraints around it
+	 */
+	private void setKnown(int index, int value) {
+		if ((knowledge[index] & (SAFE | MINE)) != 0) {
+			return;
+		}
+		knowledge[index] |= value;
+		if (value == SAFE) {
+			safeTiles[safeCount++] = index;
+		}
+		else {
+			mineTiles[mineCount++] = index;
+		}
+		enqueueNeighbours(index);
+	}
+
+	/*
+	 * Queue the constraints around a tile
+	 */
+	private void enqueueNeighbours(int index) {
+		int row = index / cols;
+		int col = index % cols;
+		for (int r = Math.max(0, row - 1); r <= Math.min(rows - 1, row + 1); r++) {
+			for (int c = Math.max(0, col - 1); c <= Math.min(cols - 1, col + 1); c++) {
+				enqueue(board.getIndex(r, c));
+			}
+		}
+	}
+
+	/*
+	 * Queue a constraint to be examined unless it is already queued
+	 */
+	private void enqueue(int index) {
+		if (isConstraint(index) && (knowledge[index] & QUEUED) == 0) {
+			knowledge[index] |= QUEUED;
+			queue[(head + queued) % queue.length] = index;
+			queued++;
+		}
+	}
+
+	/*
+	 * A revealed tile that is not mined constrains its neighbours
+	 */
+	private boolean isConstraint(int index) {
+		return board.isRevealed(index) && !board.isMined(index);
+	}
+
+	/*
+	 * A tile is unknown if it is neither revealed nor deduced
+	 */
+	private boolean isUnknown(int index) {
+		return !board.isRevealed(index) && (knowledge[index] & (SAFE | MINE)) == 0;
+	}
+
+	/*
+	 * Getters
+	 */
+	public boolean isKnownSafe(int index) {
+		return (knowledge[index] & SAFE) != 0;
+	}
+
+	public boolean isKnownMine(int index) {
+		return (knowledge[index] & MINE) != 0;
+	}
+
+	/**
+	 * Returns the tiles deduced to be safe in the order they were found.
+	 * Only the first getSafeCount() entries are valid.
+	 * @return int[] containing the indexes of the safe tiles
+	 */
+	public int[] getSafeTiles() {
+		return safeTiles;
+	}
+
+	public int getSafeCount() {
+		return safeCount;
+	}
+
+	/**
+	 * Returns the tiles deduced to be mined in the order they were found.
+	 * Flagged tiles are not included. Only the first getMineCount() entries are valid.
+	 * @return int[] containing the indexes of the mined tiles
+	 */
+	public int[] getMineTiles() {
+		return mineTiles;
+	}
+
+	public int getMineCount() {
+		return mineCount;
+	}
+}